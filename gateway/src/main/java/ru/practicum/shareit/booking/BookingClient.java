@@ -3,13 +3,15 @@ package ru.practicum.shareit.booking;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -17,43 +19,73 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory, @Nullable WebClient webClient) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClient
         );
     }
 
-    public ResponseEntity<Object> addBooking(Long bookerId, BookingDto bookingDto) {
+    public Object addBooking(Long bookerId, BookingDto bookingDto) {
         return post("", bookerId, bookingDto);
     }
 
-    public ResponseEntity<Object> approveBooking(Long ownerId, Long bookingId, Boolean approved) {
+    public Object approveBooking(Long ownerId, Long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", ownerId, parameters, null);
     }
 
-    public ResponseEntity<Object> getBooking(Long userId, Long bookingId) {
+    public Object approveBookings(Long ownerId, List<Long> bookingIds, Boolean approved) {
+        Map<String, Object> parameters = Map.of("approved", approved);
+        return patch("?approved={approved}", ownerId, parameters, bookingIds);
+    }
+
+    public Object getBooking(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getListOfUsersBookings(Long bookerId, String state, Integer from, Integer size) {
+    public Object getListOfUsersBookings(Long bookerId, String state, Integer from, Integer size, Boolean total) {
         Map<String, Object> parameters = Map.of(
                 "state", state,
                 "from", from,
-                "size", size
+                "size", size,
+                "total", total
         );
-        return get("?state={state}&from={from}&size={size}", bookerId, parameters);
+        return get("?state={state}&from={from}&size={size}&total={total}", bookerId, parameters);
     }
 
-    public ResponseEntity<Object> getListOfBookingsUserItems(Long ownerId, String state, Integer from, Integer size) {
+    public Object getListOfUsersBookingsAfter(Long bookerId, String state, String cursor, Integer size, Boolean total) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "cursor", cursor,
+                "size", size,
+                "total", total
+        );
+        return get("?state={state}&cursor={cursor}&size={size}&total={total}", bookerId, parameters);
+    }
+
+    public Object getListOfBookingsUserItems(Long ownerId, String state, Integer from, Integer size, Boolean total) {
         Map<String, Object> parameters = Map.of(
                 "state", state,
                 "from", from,
-                "size", size
+                "size", size,
+                "total", total
+        );
+        return get("/owner?state={state}&from={from}&size={size}&total={total}", ownerId, parameters);
+    }
+
+    public Object getListOfBookingsUserItemsAfter(Long ownerId, String state, String cursor, Integer size,
+                                                  Boolean total) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "cursor", cursor,
+                "size", size,
+                "total", total
         );
-        return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters);
+        return get("/owner?state={state}&cursor={cursor}&size={size}&total={total}", ownerId, parameters);
     }
 }
@@ -1,99 +1,217 @@
 package ru.practicum.shareit.client;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.util.Util;
 
+// every request returns what the engine produces: the blocking engine a ResponseEntity<Resource>, the reactive one
+// a Mono<ResponseEntity<Flux<DataBuffer>>>; RelayedResponseHandler writes either to the client
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(HttpHeaders.CONNECTION, HttpHeaders.TRANSFER_ENCODING,
+            HttpHeaders.CONTENT_LENGTH);
+    private static final int CACHED_BODY_BUFFER_BYTES = 8 * 1024;
+    // cached responses are scoped by the client's resource; items answer requests, and deleting a user removes
+    // their items and requests, while bookings are not part of any cached response
+    private static final Map<String, Set<String>> AFFECTED_SCOPES = Map.of(
+            "items", Set.of("items", "requests"),
+            "requests", Set.of("requests"),
+            "users", Set.of("items", "requests"));
+
     protected final RestTemplate rest;
+    private final ResponseCache responseCache;
+    private final WebClient webClient;
+    private final String scope;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null, null);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable WebClient webClient) {
+        this(rest, null, webClient);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable ResponseCache responseCache, @Nullable WebClient webClient) {
         this.rest = rest;
+        this.responseCache = responseCache;
+        this.webClient = webClient;
+        this.scope = lastSegment(rest.getUriTemplateHandler().expand(""));
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Object get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Object get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Object get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected Object getCached(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        if (responseCache == null) {
+            return get(path, userId, parameters);
+        }
+        URI uri = expand(path, parameters);
+        String key = userId + " " + uri;
+        ResponseCache.Entry cached = responseCache.get(key);
+        if (cached != null && cached.isFresh()) {
+            return webClient == null ? cached.getResponse() : Mono.just(streamed(cached.getResponse()));
+        }
+        long generation = responseCache.generation(scope);
+        HttpHeaders headers = defaultHeaders(userId);
+        if (cached != null && cached.getETag() != null) {
+            headers.setIfNoneMatch(cached.getETag());
+        }
+        if (webClient == null) {
+            ResponseEntity<Resource> response = exchange(HttpMethod.GET, path, parameters, new HttpEntity<>(headers));
+            return cacheResponse(key, cached, generation, response);
+        }
+        // a cached response is kept in memory anyway, so it is read whole instead of streamed
+        return webClient.get()
+                .uri(uri)
+                .headers(requestHeaders -> requestHeaders.addAll(headers))
+                .exchangeToMono(response -> response.toEntity(byte[].class))
+                .map(response -> streamed(cacheResponse(key, cached, generation,
+                        relayResponse(response.getStatusCode(), response.getHeaders(), response.getBody()))));
+    }
+
+    protected <T> Object post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Object post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Object post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Object put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Object put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Object patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Object patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Object patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Object patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Object delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Object delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Object delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> Object makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                          @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpHeaders headers = defaultHeaders(userId);
+        if (webClient != null) {
+            return exchangeReactive(method, path, parameters, headers, body)
+                    .doOnSuccess(response -> expireCachedResponses(method));
+        }
+        ResponseEntity<Resource> response = exchange(method, path, parameters, new HttpEntity<>(body, headers));
+        expireCachedResponses(method);
+        return response;
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
+    private <T> ResponseEntity<Resource> exchange(HttpMethod method, String path,
+                                                  @Nullable Map<String, Object> parameters,
+                                                  HttpEntity<T> requestEntity) {
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return relayResponse(e.getStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
+        }
+        return relayResponse(shareitServerResponse.getStatusCode(), shareitServerResponse.getHeaders(),
+                shareitServerResponse.getBody());
+    }
+
+    // error statuses are relayed like any other response, and the body is passed on without the codec size limit
+    private <T> Mono<ResponseEntity<Flux<DataBuffer>>> exchangeReactive(HttpMethod method, String path,
+                                                                        @Nullable Map<String, Object> parameters,
+                                                                        HttpHeaders headers, @Nullable T body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(expand(path, parameters))
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        WebClient.RequestHeadersSpec<?> spec = body == null ? request : request.bodyValue(body);
+        return spec.retrieve()
+                .onStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> relayResponse(response.getStatusCode(), response.getHeaders(), response.getBody()));
+    }
+
+    private ResponseEntity<Resource> cacheResponse(String key, @Nullable ResponseCache.Entry cached, long generation,
+                                                   ResponseEntity<Resource> response) {
+        if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            return responseCache.revalidated(key, cached, generation);
+        }
+        responseCache.put(scope, key, response, generation);
+        return response;
+    }
+
+    private void expireCachedResponses(HttpMethod method) {
+        if (responseCache != null && method != HttpMethod.GET) {
+            responseCache.expire(AFFECTED_SCOPES.getOrDefault(scope, Set.of()));
         }
-        return prepareGatewayResponse(shareitServerResponse);
+    }
+
+    private static String lastSegment(URI uri) {
+        String path = uri.getPath() == null ? "" : uri.getPath();
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private URI expand(String path, @Nullable Map<String, Object> parameters) {
+        return parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -106,17 +224,40 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private static ResponseEntity<Resource> relayResponse(HttpStatus status, @Nullable HttpHeaders serverHeaders,
+                                                          @Nullable byte[] body) {
+        HttpHeaders headers = relayHeaders(serverHeaders);
+        if (body == null || body.length == 0) {
+            return new ResponseEntity<>(headers, status);
         }
+        return new ResponseEntity<>(new ByteArrayResource(body), headers, status);
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private static ResponseEntity<Flux<DataBuffer>> relayResponse(HttpStatus status, HttpHeaders serverHeaders,
+                                                                  Flux<DataBuffer> body) {
+        HttpHeaders headers = relayHeaders(serverHeaders);
+        if (serverHeaders.getContentLength() == 0 || status == HttpStatus.NO_CONTENT
+                || status == HttpStatus.NOT_MODIFIED) {
+            body.subscribe(DataBufferUtils.releaseConsumer());
+            return new ResponseEntity<>(headers, status);
+        }
+        return new ResponseEntity<>(body, headers, status);
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    private static ResponseEntity<Flux<DataBuffer>> streamed(ResponseEntity<Resource> response) {
+        if (response.getBody() == null) {
+            return new ResponseEntity<>(response.getHeaders(), response.getStatusCode());
         }
+        return new ResponseEntity<>(DataBufferUtils.read(response.getBody(), DefaultDataBufferFactory.sharedInstance,
+                CACHED_BODY_BUFFER_BYTES), response.getHeaders(), response.getStatusCode());
+    }
 
-        return responseBuilder.build();
+    private static HttpHeaders relayHeaders(@Nullable HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            headers.addAll(serverHeaders);
+            HOP_BY_HOP_HEADERS.forEach(headers::remove);
+        }
+        return headers;
     }
 }
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class HttpClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager connectionManager(
+            @Value("${shareit-gateway.http.max-total:200}") int maxTotal,
+            @Value("${shareit-gateway.http.max-per-route:100}") int maxPerRoute,
+            @Value("${shareit-gateway.http.validate-after-inactivity-millis:2000}") int validateAfterInactivity) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setValidateAfterInactivity(validateAfterInactivity);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(
+            PoolingHttpClientConnectionManager connectionManager,
+            @Value("${shareit-gateway.http.connect-timeout-millis:2000}") int connectTimeout,
+            @Value("${shareit-gateway.http.read-timeout-millis:10000}") int readTimeout,
+            @Value("${shareit-gateway.http.connection-request-timeout-millis:1000}") int connectionRequestTimeout,
+            @Value("${shareit-gateway.http.keep-alive-millis:30000}") long keepAlive,
+            @Value("${shareit-gateway.http.idle-eviction-millis:30000}") long idleEviction) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeout)
+                .setSocketTimeout(readTimeout)
+                .setConnectionRequestTimeout(connectionRequestTimeout)
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> keepAlive)
+                .evictExpiredConnections()
+                .evictIdleConnections(idleEviction, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Bean
+    public HttpComponentsClientHttpRequestFactory clientHttpRequestFactory(CloseableHttpClient httpClient) {
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    @Bean
+    public MeterBinder connectionPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        return registry -> {
+            Gauge.builder("shareit.gateway.http.pool.leased", connectionManager,
+                    manager -> manager.getTotalStats().getLeased()).register(registry);
+            Gauge.builder("shareit.gateway.http.pool.pending", connectionManager,
+                    manager -> manager.getTotalStats().getPending()).register(registry);
+            Gauge.builder("shareit.gateway.http.pool.available", connectionManager,
+                    manager -> manager.getTotalStats().getAvailable()).register(registry);
+            Gauge.builder("shareit.gateway.http.pool.max", connectionManager,
+                    manager -> manager.getTotalStats().getMax()).register(registry);
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+// custom handlers added through WebMvcConfigurer run after the default ones, which would claim a Mono first
+@Component
+public class RelayedResponseConfig implements WebMvcRegistrations {
+
+    @Override
+    public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+        return new RequestMappingHandlerAdapter() {
+            @Override
+            public void afterPropertiesSet() {
+                super.afterPropertiesSet();
+                List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>(getReturnValueHandlers());
+                handlers.add(0, new RelayedResponseHandler());
+                setReturnValueHandlers(handlers);
+            }
+        };
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.client;
+
+import java.util.Collections;
+import java.util.Enumeration;
+
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServletHttpHandlerAdapter;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// gateway controllers declare Object because the engine decides the type, and for Object Spring MVC picks a handler
+// by the returned value; a ResponseEntity of the blocking engine goes to the default one, while a Mono would go to
+// the reactive type handler, which serializes a DataBuffer body instead of writing it, so this handler runs first
+public class RelayedResponseHandler implements HandlerMethodReturnValueHandler {
+    private static final String RELAYED_RESPONSE = RelayedResponseHandler.class.getName() + ".RELAYED_RESPONSE";
+
+    // writes the body with non-blocking servlet output as the server sends it, so no thread waits on a slow client
+    private final ServletHttpHandlerAdapter streamingAdapter = new ServletHttpHandlerAdapter(
+            RelayedResponseHandler::relay);
+    private volatile boolean streamingAdapterInitialized;
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return returnType.getMethod() != null && returnType.getMethod().getReturnType() == Object.class
+                && Mono.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public void handleReturnValue(Object returnValue, MethodParameter returnType, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest) throws Exception {
+        mavContainer.setRequestHandled(true);
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        HttpServletResponse response = webRequest.getNativeResponse(HttpServletResponse.class);
+        request.setAttribute(RELAYED_RESPONSE, returnValue);
+        streamingAdapter(request).service(request, response);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Mono<Void> relay(ServerHttpRequest request, ServerHttpResponse response) {
+        HttpServletRequest servletRequest = ServerHttpRequestDecorator.getNativeRequest(request);
+        Mono<ResponseEntity<Flux<DataBuffer>>> relayed =
+                (Mono<ResponseEntity<Flux<DataBuffer>>>) servletRequest.getAttribute(RELAYED_RESPONSE);
+        return relayed.flatMap(entity -> {
+            response.setStatusCode(entity.getStatusCode());
+            response.getHeaders().putAll(entity.getHeaders());
+            return entity.getBody() == null ? response.setComplete() : response.writeWith(entity.getBody());
+        });
+    }
+
+    // the adapter needs the mapping of the servlet it runs in, which is known only once a request has arrived
+    private ServletHttpHandlerAdapter streamingAdapter(HttpServletRequest request) {
+        if (!streamingAdapterInitialized) {
+            synchronized (streamingAdapter) {
+                if (!streamingAdapterInitialized) {
+                    streamingAdapter.init(servletConfig(request));
+                    streamingAdapterInitialized = true;
+                }
+            }
+        }
+        return streamingAdapter;
+    }
+
+    private static ServletConfig servletConfig(HttpServletRequest request) {
+        String servletName = request.getHttpServletMapping().getServletName();
+        ServletContext servletContext = request.getServletContext();
+        return new ServletConfig() {
+            @Override
+            public String getServletName() {
+                return servletName;
+            }
+
+            @Override
+            public ServletContext getServletContext() {
+                return servletContext;
+            }
+
+            @Override
+            public String getInitParameter(String name) {
+                return null;
+            }
+
+            @Override
+            public Enumeration<String> getInitParameterNames() {
+                return Collections.emptyEnumeration();
+            }
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class ResponseCache {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entry> entries;
+    private final Map<String, Long> generations = new HashMap<>();
+
+    public ResponseCache(@Value("${shareit-gateway.cache.size:10000}") int maxSize,
+                         @Value("${shareit-gateway.cache.ttl-millis:2000}") long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlNanos = Duration.ofMillis(ttlMillis).toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ResponseCache.this.maxSize;
+            }
+        };
+    }
+
+    public synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    public synchronized long generation(String scope) {
+        return generations.getOrDefault(scope, 0L);
+    }
+
+    public synchronized void put(String scope, String key, ResponseEntity<Resource> response,
+                                 long requestGeneration) {
+        // a write that completed while the request was in flight may have made the response stale
+        if (!response.getStatusCode().is2xxSuccessful() || requestGeneration != generation(scope)) return;
+        entries.put(key, new Entry(scope, response, response.getHeaders().getETag(), System.nanoTime() + ttlNanos));
+    }
+
+    public synchronized ResponseEntity<Resource> revalidated(String key, Entry entry, long requestGeneration) {
+        if (requestGeneration == generation(entry.scope)) {
+            entries.put(key, new Entry(entry.scope, entry.response, entry.eTag, System.nanoTime() + ttlNanos));
+        }
+        return entry.response;
+    }
+
+    // expired entries keep their ETag, so the next read revalidates them instead of downloading them again
+    public synchronized void expire(Collection<String> scopes) {
+        if (scopes.isEmpty()) return;
+        long now = System.nanoTime();
+        entries.replaceAll((key, entry) -> scopes.contains(entry.scope)
+                ? new Entry(entry.scope, entry.response, entry.eTag, now)
+                : entry);
+        scopes.forEach(scope -> generations.merge(scope, 1L, Long::sum));
+    }
+
+    public static class Entry {
+        private final String scope;
+        private final ResponseEntity<Resource> response;
+        private final String eTag;
+        private final long expiresAt;
+
+        private Entry(String scope, ResponseEntity<Resource> response, String eTag, long expiresAt) {
+            this.scope = scope;
+            this.response = response;
+            this.eTag = eTag;
+            this.expiresAt = expiresAt;
+        }
+
+        public ResponseEntity<Resource> getResponse() {
+            return response;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        public boolean isFresh() {
+            return expiresAt - System.nanoTime() > 0;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "shareit-gateway.engine", havingValue = "reactive")
+public class WebClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider connectionProvider(
+            @Value("${shareit-gateway.http.max-total:200}") int maxTotal,
+            @Value("${shareit-gateway.http.connection-request-timeout-millis:1000}") long connectionRequestTimeout,
+            @Value("${shareit-gateway.http.idle-eviction-millis:30000}") long idleEviction) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxTotal)
+                .pendingAcquireTimeout(Duration.ofMillis(connectionRequestTimeout))
+                .maxIdleTime(Duration.ofMillis(idleEviction))
+                .evictInBackground(Duration.ofMillis(idleEviction))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient webClient(
+            WebClient.Builder builder,
+            ConnectionProvider connectionProvider,
+            @Value("${shareit-gateway.http.connect-timeout-millis:2000}") int connectTimeout,
+            @Value("${shareit-gateway.http.read-timeout-millis:10000}") long readTimeout,
+            @Value("${shareit-gateway.http.max-response-bytes:16777216}") int maxResponseBytes) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeout)
+                .responseTimeout(Duration.ofMillis(readTimeout));
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxResponseBytes))
+                .build();
+    }
+}
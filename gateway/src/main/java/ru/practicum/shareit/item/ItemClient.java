@@ -3,15 +3,21 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class ItemClient extends BaseClient {
@@ -19,20 +25,24 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, ResponseCache responseCache,
+                      @Nullable WebClient webClient) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                responseCache,
+                webClient
         );
     }
 
-    public ResponseEntity<Object> getItemById(Long userId, Long itemId) {
+    public Object getItemById(Long userId, Long itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getItems(Long userId, Integer from, Integer size) {
+    public Object getItems(Long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -40,24 +50,81 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> addItem(Long ownerId, ItemDto itemDto) {
+    public Object getItemsAfter(Long userId, String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "cursor", cursor,
+                "size", size
+        );
+        return get("?cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public Object addItem(Long ownerId, ItemDto itemDto) {
         return post("", ownerId, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(Long ownerId, Long itemId, ItemDto itemDto) {
+    public Object updateItem(Long ownerId, Long itemId, ItemDto itemDto) {
         return patch("/" + itemId, ownerId, itemDto);
     }
 
-    public ResponseEntity<Object> searchItems(Long userId, String text, Integer from, Integer size) {
+    public Object searchItems(Long userId, String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return getCached("/search?text={text}&from={from}&size={size}", userId, parameters);
+    }
+
+    public Object searchItemsAfter(Long userId, String text, String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "cursor", cursor,
+                "size", size
+        );
+        return getCached("/search?text={text}&cursor={cursor}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentDto commentDto) {
+    // period searches are not cached: booking writes would make them stale and the server cannot answer them with 304
+    public Object searchItems(Long userId, String text, @Nullable LocalDateTime start, @Nullable LocalDateTime end,
+                              Integer from, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("start", start == null ? "" : start);
+        parameters.put("end", end == null ? "" : end);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        return get("/search?text={text}&start={start}&end={end}&from={from}&size={size}", userId, parameters);
+    }
+
+    public Object searchItemsAfter(Long userId, String text, @Nullable LocalDateTime start, @Nullable LocalDateTime end,
+                                   String cursor, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("start", start == null ? "" : start);
+        parameters.put("end", end == null ? "" : end);
+        parameters.put("cursor", cursor);
+        parameters.put("size", size);
+        return get("/search?text={text}&start={start}&end={end}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public Object addComment(Long userId, Long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
+
+    public Object getAvailability(Long userId, Long itemId, LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> parameters = Map.of(
+                "start", start,
+                "end", end
+        );
+        return get("/" + itemId + "/availability?start={start}&end={end}", userId, parameters);
+    }
+
+    public Object getAvailability(Long userId, List<Long> itemIds, LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> parameters = Map.of(
+                "ids", itemIds.stream().map(String::valueOf).collect(Collectors.joining(",")),
+                "start", start,
+                "end", end
+        );
+        return get("/availability?ids={ids}&start={start}&end={end}", userId, parameters);
+    }
 }
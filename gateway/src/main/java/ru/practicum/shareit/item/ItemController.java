@@ -2,7 +2,7 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -12,8 +12,12 @@ import ru.practicum.shareit.item.dto.markers.UpdateItemValidation;
 import ru.practicum.shareit.util.Util;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/items")
@@ -25,51 +29,87 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@Positive @RequestHeader(Util.HEADER_USER_ID) Long userId,
-                                              @Positive @PathVariable Long itemId) {
+    public Object getItemById(@Positive @RequestHeader(Util.HEADER_USER_ID) Long userId,
+                              @Positive @PathVariable Long itemId) {
         log.info("ItemController => getItemById: userId={}, itemId={}", userId, itemId);
         return itemClient.getItemById(userId, itemId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItems(
+    public Object getItems(
             @Positive @RequestHeader(Util.HEADER_USER_ID) Long userId,
             @PositiveOrZero @RequestParam(value = "from", defaultValue = "0") int from,
-            @Positive @RequestParam(value = "size", defaultValue = "10") int size) {
-        log.info("ItemController => getItems: userId={}, from={}, size={}", userId, from, size);
+            @Positive @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        log.info("ItemController => getItems: userId={}, from={}, size={}, cursor={}", userId, from, size, cursor);
+        if (cursor != null) return itemClient.getItemsAfter(userId, cursor, size);
         return itemClient.getItems(userId, from, size);
     }
 
     @PostMapping
-    public ResponseEntity<Object> addItem(@Validated(AddItemValidation.class) @RequestBody ItemDto itemDto,
-                           @Positive @RequestHeader(Util.HEADER_USER_ID) Long ownerId) {
+    public Object addItem(@Validated(AddItemValidation.class) @RequestBody ItemDto itemDto,
+                          @Positive @RequestHeader(Util.HEADER_USER_ID) Long ownerId) {
         log.info("ItemController => addItem: ownerId={}, itemDto={}", ownerId, itemDto);
         return itemClient.addItem(ownerId, itemDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@Validated(UpdateItemValidation.class) @RequestBody ItemDto itemDto,
-                              @Positive @PathVariable Long itemId,
-                              @Positive @RequestHeader(Util.HEADER_USER_ID) Long ownerId) {
+    public Object updateItem(
+            @Validated(UpdateItemValidation.class) @RequestBody ItemDto itemDto,
+            @Positive @PathVariable Long itemId,
+            @Positive @RequestHeader(Util.HEADER_USER_ID) Long ownerId) {
         log.info("ItemController => updateItem: ownerId={}, itemId={}, itemDto={}", ownerId, itemId, itemDto);
         return itemClient.updateItem(ownerId, itemId, itemDto);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(
+    public Object searchItems(
             @Positive @RequestHeader(Util.HEADER_USER_ID) Long userId,
             @RequestParam("text") String text,
             @PositiveOrZero @RequestParam(value = "from", defaultValue = "0") int from,
-            @Positive @RequestParam(value = "size", defaultValue = "10") int size) {
-        log.info("ItemController => searchItems: userId={}, text={}, from={}, size={}", userId, text, from, size);
+            @Positive @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "start", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(value = "end", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("ItemController => searchItems: userId={}, text={}, from={}, size={}, cursor={}, start={}, end={}",
+                userId, text, from, size, cursor, start, end);
+        if (start != null || end != null) {
+            if (cursor != null) return itemClient.searchItemsAfter(userId, text, start, end, cursor, size);
+            return itemClient.searchItems(userId, text, start, end, from, size);
+        }
+        if (cursor != null) return itemClient.searchItemsAfter(userId, text, cursor, size);
         return itemClient.searchItems(userId, text, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@Valid @RequestBody CommentDto commentDto,
-                                  @Positive @RequestHeader(Util.HEADER_USER_ID) Long userId,
-                                  @Positive @PathVariable Long itemId) {
+    public Object addComment(@Valid @RequestBody CommentDto commentDto,
+                             @Positive @RequestHeader(Util.HEADER_USER_ID) Long userId,
+                             @Positive @PathVariable Long itemId) {
         log.info("ItemController => addComment: userId={}, itemId={}, commentDto={}", userId, itemId, commentDto);
         return itemClient.addComment(userId, itemId, commentDto);
     }
+
+    @GetMapping("/{itemId}/availability")
+    public Object getAvailability(
+            @Positive @RequestHeader(Util.HEADER_USER_ID) Long userId,
+            @Positive @PathVariable Long itemId,
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("ItemController => getAvailability: userId={}, itemId={}, start={}, end={}", userId, itemId, start,
+                end);
+        return itemClient.getAvailability(userId, itemId, start, end);
+    }
+
+    @GetMapping("/availability")
+    public Object getAvailability(
+            @Positive @RequestHeader(Util.HEADER_USER_ID) Long userId,
+            @NotEmpty @Size(max = 100) @RequestParam("ids") List<@Positive Long> itemIds,
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("ItemController => getAvailability: userId={}, itemIds={}, start={}, end={}", userId, itemIds, start,
+                end);
+        return itemClient.getAvailability(userId, itemIds, start, end);
+    }
 }
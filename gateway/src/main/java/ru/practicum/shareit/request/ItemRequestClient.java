@@ -3,11 +3,13 @@ package ru.practicum.shareit.request;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
@@ -18,32 +20,46 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ClientHttpRequestFactory requestFactory, ResponseCache responseCache,
+                             @Nullable WebClient webClient) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                responseCache,
+                webClient
         );
     }
 
-    public ResponseEntity<Object> addItemRequest(Long userId, ItemRequestDto itemRequestDto) {
+    public Object addItemRequest(Long userId, ItemRequestDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getItemRequests(Long userId) {
+    public Object getItemRequests(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllItemRequests(Long userId, Integer from, Integer size) {
+    public Object getAllItemRequests(Long userId, Integer from, Integer size, Boolean total) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
-                "size", size
+                "size", size,
+                "total", total
         );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return getCached("/all?from={from}&size={size}&total={total}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemRequest(Long userId, Long requestId) {
+    public Object getAllItemRequestsAfter(Long userId, String cursor, Integer size, Boolean total) {
+        Map<String, Object> parameters = Map.of(
+                "cursor", cursor,
+                "size", size,
+                "total", total
+        );
+        return getCached("/all?cursor={cursor}&size={size}&total={total}", userId, parameters);
+    }
+
+    public Object getItemRequest(Long userId, Long requestId) {
         return get("/" + requestId, userId);
     }
 }
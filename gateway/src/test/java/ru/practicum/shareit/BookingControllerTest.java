@@ -8,6 +8,7 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +19,7 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
@@ -35,7 +37,7 @@ public class BookingControllerTest {
 
     private BookingDto bookingDto;
 
-    private final ResponseEntity<Object> responseEntity = new ResponseEntity<>(HttpStatus.OK);
+    private final ResponseEntity<Resource> response = new ResponseEntity<>(HttpStatus.OK);
 
     @BeforeEach
     public void beforeEach() {
@@ -51,7 +53,7 @@ public class BookingControllerTest {
     @Test
     public void shouldAddBooking() throws Exception {
         when(bookingClient.addBooking(anyLong(), any(BookingDto.class)))
-                .thenReturn(responseEntity);
+                .thenReturn(response);
 
         mvc.perform(post("/bookings")
                         .content(mapper.writeValueAsString(bookingDto))
@@ -120,7 +122,7 @@ public class BookingControllerTest {
     public void shouldApproveBooking() throws Exception {
         Mockito
                 .when(bookingClient.approveBooking(anyLong(), anyLong(), anyBoolean()))
-                .thenReturn(responseEntity);
+                .thenReturn(response);
 
         mvc.perform(patch("/bookings/1")
                         .header("X-Sharer-User-Id", 1)
@@ -130,11 +132,39 @@ public class BookingControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    public void shouldApproveBookingsInBulk() throws Exception {
+        Mockito
+                .when(bookingClient.approveBookings(anyLong(), anyList(), anyBoolean()))
+                .thenReturn(response);
+
+        mvc.perform(patch("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("approved", String.valueOf(true))
+                        .content(mapper.writeValueAsString(List.of(1L, 2L)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void shouldNotApproveBookingsWhenIdsEmpty() throws Exception {
+        mvc.perform(patch("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("approved", String.valueOf(true))
+                        .content(mapper.writeValueAsString(List.of()))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void shouldGetBookingById() throws Exception {
         Mockito
                 .when(bookingClient.getBooking(anyLong(), anyLong()))
-                .thenReturn(responseEntity);
+                .thenReturn(response);
 
         mvc.perform(get("/bookings/1")
                         .header("X-Sharer-User-Id", 1)
@@ -146,8 +176,8 @@ public class BookingControllerTest {
     @Test
     public void shouldGetListOfUsersBookings() throws Exception {
         Mockito
-                .when(bookingClient.getListOfUsersBookings(anyLong(), anyString(), anyInt(), anyInt()))
-                .thenReturn(responseEntity);
+                .when(bookingClient.getListOfUsersBookings(anyLong(), anyString(), anyInt(), anyInt(), anyBoolean()))
+                .thenReturn(response);
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 1)
@@ -159,10 +189,24 @@ public class BookingControllerTest {
     @Test
     public void shouldGetListOfBookingsUserItems() throws Exception {
         Mockito
-                .when(bookingClient.getListOfBookingsUserItems(anyLong(), anyString(), anyInt(), anyInt()))
-                .thenReturn(responseEntity);
+                .when(bookingClient.getListOfBookingsUserItems(anyLong(), anyString(), anyInt(), anyInt(), anyBoolean()))
+                .thenReturn(response);
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void shouldGetListOfBookingsUserItemsAfterCursor() throws Exception {
+        Mockito
+                .when(bookingClient.getListOfBookingsUserItemsAfter(1L, "ALL", "abc", 10, false))
+                .thenReturn(response);
 
         mvc.perform(get("/bookings/owner")
+                        .param("cursor", "abc")
                         .header("X-Sharer-User-Id", 1)
                         .characterEncoding(StandardCharsets.UTF_8)
                         .accept(MediaType.APPLICATION_JSON))
@@ -0,0 +1,220 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.ItemRequestClient;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class ItemClientTest {
+    private static final String SEARCH_URL = "http://server/items/search?text=drill&from=0&size=10";
+
+    private MockRestServiceServer server;
+    private MockRestServiceServer requestServer;
+    private ItemClient itemClient;
+    private ItemRequestClient itemRequestClient;
+    private HttpHeaders eTagHeaders;
+
+    @BeforeEach
+    public void beforeEach() {
+        RestTemplateBuilder builder = new RestTemplateBuilder()
+                .additionalCustomizers(rest -> server = MockRestServiceServer.bindTo(rest).build());
+        ResponseCache responseCache = new ResponseCache(100, 60000);
+        this.itemClient = new ItemClient("http://server", builder, new SimpleClientHttpRequestFactory(),
+                responseCache, null);
+        this.itemRequestClient = new ItemRequestClient("http://server", new RestTemplateBuilder()
+                .additionalCustomizers(rest -> requestServer = MockRestServiceServer.bindTo(rest).build()),
+                new SimpleClientHttpRequestFactory(), responseCache, null);
+        this.eTagHeaders = new HttpHeaders();
+        eTagHeaders.setETag("\"1\"");
+    }
+
+    @Test
+    public void shouldServeRepeatedSearchFromCache() throws IOException {
+        server.expect(requestTo(SEARCH_URL))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON).headers(eTagHeaders));
+
+        itemClient.searchItems(1L, "drill", 0, 10);
+        ResponseEntity<Resource> response = blocking(itemClient.searchItems(1L, "drill", 0, 10));
+
+        assertThat(bodyOf(response), equalTo("[]"));
+        server.verify();
+    }
+
+    @Test
+    public void shouldRevalidateSearchAfterWrite() throws IOException {
+        server.expect(requestTo(SEARCH_URL))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON).headers(eTagHeaders));
+        server.expect(method(HttpMethod.POST))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(SEARCH_URL))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        itemClient.searchItems(1L, "drill", 0, 10);
+        itemClient.addItem(1L, ItemDto.builder().name("item").build());
+        ResponseEntity<Resource> response = blocking(itemClient.searchItems(1L, "drill", 0, 10));
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(bodyOf(response), equalTo("[]"));
+        server.verify();
+    }
+
+    @Test
+    public void shouldKeepSearchCachedAfterUnrelatedWrite() throws IOException {
+        server.expect(requestTo(SEARCH_URL))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON).headers(eTagHeaders));
+        requestServer.expect(method(HttpMethod.POST))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        itemClient.searchItems(1L, "drill", 0, 10);
+        itemRequestClient.addItemRequest(2L, ItemRequestDto.builder().description("drill").build());
+        ResponseEntity<Resource> response = blocking(itemClient.searchItems(1L, "drill", 0, 10));
+
+        assertThat(bodyOf(response), equalTo("[]"));
+        server.verify();
+        requestServer.verify();
+    }
+
+    @Test
+    public void shouldNotShareCacheBetweenUsers() {
+        server.expect(requestTo(SEARCH_URL))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(SEARCH_URL))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        itemClient.searchItems(1L, "drill", 0, 10);
+        itemClient.searchItems(2L, "drill", 0, 10);
+
+        server.verify();
+    }
+
+    @Test
+    public void shouldNotCachePeriodSearch() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 5, 0, 0);
+        // the colons in the period are percent-encoded on the wire
+        String url = "http://server/items/search?text=drill&start=2030-01-05T00%3A00&end=2030-01-07T00%3A00" +
+                "&from=0&size=10";
+        server.expect(requestTo(url))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON).headers(eTagHeaders));
+        server.expect(requestTo(url))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON).headers(eTagHeaders));
+
+        itemClient.searchItems(1L, "drill", start, start.plusDays(2), 0, 10);
+        itemClient.searchItems(1L, "drill", start, start.plusDays(2), 0, 10);
+
+        server.verify();
+    }
+
+    @Test
+    public void shouldRelayServerErrorWithContentType() throws IOException {
+        String error = "{\"error\":\"Вещи с таким id не существует\"}";
+        server.expect(requestTo("http://server/items/99"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(error.getBytes(StandardCharsets.UTF_8)));
+
+        ResponseEntity<Resource> response = blocking(itemClient.getItemById(1L, 99L));
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+        assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON));
+        assertThat(bodyOf(response), equalTo(error));
+    }
+
+    @Test
+    public void shouldRelayRawServerResponseInReactiveMode() throws IOException {
+        String error = "{\"error\":\"Вещи с таким id не существует\"}";
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(error)
+                        .build()))
+                .build();
+        ItemClient reactiveClient = new ItemClient("http://server", new RestTemplateBuilder(),
+                new SimpleClientHttpRequestFactory(), new ResponseCache(100, 60000), webClient);
+
+        ResponseEntity<Flux<DataBuffer>> response = reactive(reactiveClient.getItemById(1L, 99L));
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+        assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON));
+        assertThat(streamedBodyOf(response), equalTo(error));
+    }
+
+    @Test
+    public void shouldStreamResponsesAboveCodecLimitInReactiveMode() throws IOException {
+        String items = "[" + "{\"id\":1},".repeat(1000) + "{\"id\":2}]";
+        ExchangeStrategies smallCodecs = ExchangeStrategies.builder()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16))
+                .build();
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK, smallCodecs)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(items)
+                        .build()))
+                .build();
+        ItemClient reactiveClient = new ItemClient("http://server", new RestTemplateBuilder(),
+                new SimpleClientHttpRequestFactory(), new ResponseCache(100, 60000), webClient);
+
+        ResponseEntity<Flux<DataBuffer>> response = reactive(reactiveClient.getItems(1L, 0, 1000));
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(streamedBodyOf(response), equalTo(items));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ResponseEntity<Resource> blocking(Object response) {
+        return (ResponseEntity<Resource>) response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ResponseEntity<Flux<DataBuffer>> reactive(Object response) {
+        return ((Mono<ResponseEntity<Flux<DataBuffer>>>) response).block();
+    }
+
+    private static String bodyOf(ResponseEntity<Resource> response) throws IOException {
+        try (InputStream body = response.getBody().getInputStream()) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String streamedBodyOf(ResponseEntity<Flux<DataBuffer>> response) {
+        return DataBufferUtils.join(response.getBody())
+                .map(body -> {
+                    String text = body.toString(StandardCharsets.UTF_8);
+                    DataBufferUtils.release(body);
+                    return text;
+                })
+                .block();
+    }
+}
@@ -9,6 +9,7 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +23,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -38,7 +40,7 @@ public class ItemControllerTest {
 
     private ItemDto itemDto;
 
-    private final ResponseEntity<Object> responseEntity = new ResponseEntity<>(HttpStatus.OK);
+    private final ResponseEntity<Resource> response = new ResponseEntity<>(HttpStatus.OK);
 
     @BeforeEach
     public void beforeEach() {
@@ -55,7 +57,7 @@ public class ItemControllerTest {
     public void shouldGetItemById() throws Exception {
         Mockito
                 .when(itemClient.getItemById(anyLong(), anyLong()))
-                .thenReturn(responseEntity);
+                .thenReturn(response);
 
         mvc.perform(get("/items/1")
                         .header("X-Sharer-User-Id", 1)
@@ -68,7 +70,7 @@ public class ItemControllerTest {
     public void shouldGetItems() throws Exception {
         Mockito
                 .when(itemClient.getItems(anyLong(), anyInt(), anyInt()))
-                .thenReturn(responseEntity);
+                .thenReturn(response);
 
         mvc.perform(get("/items")
                         .header("X-Sharer-User-Id", 1)
@@ -81,7 +83,7 @@ public class ItemControllerTest {
     public void shouldAddItem() throws Exception {
         Mockito
                 .when(itemClient.addItem(anyLong(), ArgumentMatchers.any(ItemDto.class)))
-                .thenReturn(responseEntity);
+                .thenReturn(response);
 
         mvc.perform(post("/items")
                         .content(mapper.writeValueAsString(itemDto))
@@ -122,7 +124,7 @@ public class ItemControllerTest {
     public void shouldUpdateItem() throws Exception {
         Mockito
                 .when(itemClient.updateItem(anyLong(), anyLong(), ArgumentMatchers.any(ItemDto.class)))
-                .thenReturn(responseEntity);
+                .thenReturn(response);
 
         mvc.perform(patch("/items/1")
                         .content(mapper.writeValueAsString(itemDto))
@@ -137,7 +139,7 @@ public class ItemControllerTest {
     public void shouldSearchItems() throws Exception {
         Mockito
                 .when(itemClient.searchItems(anyLong(), anyString(), anyInt(), anyInt()))
-                .thenReturn(responseEntity);
+                .thenReturn(response);
 
         mvc.perform(get("/items/search")
                         .header("X-Sharer-User-Id", 1)
@@ -157,7 +159,7 @@ public class ItemControllerTest {
                 .build();
         Mockito
                 .when(itemClient.addComment(anyLong(), anyLong(), ArgumentMatchers.any(CommentDto.class)))
-                .thenReturn(responseEntity);
+                .thenReturn(response);
 
         mvc.perform(post("/items/1/comment")
                         .content(mapper.writeValueAsString(commentDto))
@@ -186,4 +188,27 @@ public class ItemControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error").value("Ошибка с полем text: Текст комментария не может быть пустым"));
     }
+
+    @Test
+    public void shouldGetItemsAvailability() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        Mockito
+                .when(itemClient.getAvailability(1L, List.of(1L, 2L), start, start.plusHours(2)))
+                .thenReturn(response);
+
+        mvc.perform(get("/items/availability?ids=1,2&start=2030-01-01T10:00:00&end=2030-01-01T12:00:00")
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void shouldNotGetAvailabilityWithoutPeriod() throws Exception {
+        mvc.perform(get("/items/1/availability")
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
 }
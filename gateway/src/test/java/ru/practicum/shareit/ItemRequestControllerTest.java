@@ -8,6 +8,7 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -37,7 +38,7 @@ public class ItemRequestControllerTest {
 
     private ItemRequestDto itemRequestDto;
 
-    private final ResponseEntity<Object> responseEntity = new ResponseEntity<>(HttpStatus.OK);
+    private final ResponseEntity<Resource> response = new ResponseEntity<>(HttpStatus.OK);
 
     @BeforeEach
     public void beforeEach() {
@@ -53,7 +54,7 @@ public class ItemRequestControllerTest {
     public void shouldAddItemRequest() throws Exception {
         Mockito
                 .when(itemRequestClient.addItemRequest(anyLong(), any(ItemRequestDto.class)))
-                .thenReturn(responseEntity);
+                .thenReturn(response);
 
         mvc.perform(post("/requests")
                         .content(mapper.writeValueAsString(itemRequestDto))
@@ -81,7 +82,7 @@ public class ItemRequestControllerTest {
     public void shouldGetItemRequestsByUserId() throws Exception {
         Mockito
                 .when(itemRequestClient.getItemRequests(anyLong()))
-                .thenReturn(responseEntity);
+                .thenReturn(response);
 
         mvc.perform(get("/requests")
                         .header("X-Sharer-User-Id", 1)
@@ -93,8 +94,8 @@ public class ItemRequestControllerTest {
     @Test
     public void shouldGetAllItemRequests() throws Exception {
         Mockito
-                .when(itemRequestClient.getAllItemRequests(anyLong(), anyInt(), anyInt()))
-                .thenReturn(responseEntity);
+                .when(itemRequestClient.getAllItemRequests(anyLong(), anyInt(), anyInt(), anyBoolean()))
+                .thenReturn(response);
 
         mvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", 1)
@@ -107,7 +108,7 @@ public class ItemRequestControllerTest {
     public void shouldGetItemRequestById() throws Exception {
         Mockito
                 .when(itemRequestClient.getItemRequest(anyLong(), anyLong()))
-                .thenReturn(responseEntity);
+                .thenReturn(response);
 
         mvc.perform(get("/requests/1")
                         .header("X-Sharer-User-Id", 1)
@@ -115,4 +116,4 @@ public class ItemRequestControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
+
+// the reactive engine writes relayed bodies through a real servlet container, which MockMvc cannot stand in for
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shareit-gateway.engine=reactive",
+        "shareit-gateway.http.max-response-bytes=1024"})
+public class ReactiveEngineTest {
+    private static final String USERS = "[" + "{\"id\":1,\"name\":\"name\",\"email\":\"email@email.ru\"},".repeat(50000)
+            + "{\"id\":2,\"name\":\"name\",\"email\":\"other@email.ru\"}]";
+    private static final String NOT_FOUND = "{\"error\":\"Пользователя с таким id не существует\"}";
+    private static final HttpServer SERVER = startServer();
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @AfterAll
+    public static void stopServer() {
+        SERVER.stop(0);
+    }
+
+    @DynamicPropertySource
+    static void serverProperties(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    @Test
+    public void shouldStreamBodyAboveCodecLimit() throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/users")).build(),
+                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+
+        assertThat(response.statusCode(), equalTo(200));
+        assertThat(response.headers().firstValue("Content-Type").orElse(""), startsWith("application/json"));
+        assertThat(response.body(), equalTo(USERS));
+    }
+
+    @Test
+    public void shouldRelayServerError() throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/users/99")).build(),
+                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+
+        assertThat(response.statusCode(), equalTo(404));
+        assertThat(response.body(), equalTo(NOT_FOUND));
+    }
+
+    @Test
+    public void shouldRelayResponseToPostedBody() throws Exception {
+        String user = "{\"name\":\"name\",\"email\":\"email@email.ru\"}";
+        HttpRequest request = HttpRequest.newBuilder(uri("/users"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(user))
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+
+        assertThat(response.statusCode(), equalTo(201));
+        assertThat(response.body(), startsWith("{\"id\":1,"));
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/users", exchange -> {
+                String path = exchange.getRequestURI().getPath();
+                if ("POST".equals(exchange.getRequestMethod())) {
+                    String user = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                    respond(exchange, 201, "{\"id\":1," + user.substring(1));
+                } else if (path.equals("/users/99")) {
+                    respond(exchange, 404, NOT_FOUND);
+                } else {
+                    respond(exchange, 200, USERS);
+                }
+            });
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
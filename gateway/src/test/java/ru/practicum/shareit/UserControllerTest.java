@@ -9,6 +9,9 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -34,7 +37,7 @@ public class UserControllerTest {
 
     private UserDto userDto;
 
-    private final ResponseEntity<Object> responseEntity = new ResponseEntity<>(HttpStatus.OK);
+    private final ResponseEntity<Resource> response = new ResponseEntity<>(HttpStatus.OK);
 
     @BeforeEach
     public void beforeEach() {
@@ -49,7 +52,7 @@ public class UserControllerTest {
     public void shouldGetUserById() throws Exception {
         Mockito
                 .when(userClient.getUserById(anyLong()))
-                .thenReturn(responseEntity);
+                .thenReturn(response);
 
         mvc.perform(get("/users/1")
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -57,11 +60,28 @@ public class UserControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    public void shouldRelayServerBodyAsIs() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        Mockito
+                .when(userClient.getUserById(anyLong()))
+                .thenReturn(new ResponseEntity<>(new ByteArrayResource("{\"id\":1,\"name\":\"Иван\"}"
+                        .getBytes(StandardCharsets.UTF_8)), headers, HttpStatus.NOT_FOUND));
+
+        mvc.perform(get("/users/1")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.name").value("Иван"));
+    }
+
     @Test
     public void shouldGetUsers() throws Exception {
         Mockito
                 .when(userClient.getUsers())
-                .thenReturn(responseEntity);
+                .thenReturn(response);
 
         mvc.perform(get("/users")
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -73,7 +93,7 @@ public class UserControllerTest {
     public void shouldAddUser() throws Exception {
         Mockito
                 .when(userClient.addUser(ArgumentMatchers.any(UserDto.class)))
-                .thenReturn(responseEntity);
+                .thenReturn(response);
 
         mvc.perform(post("/users")
                         .content(mapper.writeValueAsString(userDto))
@@ -124,7 +144,7 @@ public class UserControllerTest {
     public void shouldUpdateUser() throws Exception {
         Mockito
                 .when(userClient.updateUser(anyLong(), ArgumentMatchers.any(UserDto.class)))
-                .thenReturn(responseEntity);
+                .thenReturn(response);
 
         mvc.perform(patch("/users/1")
                         .content(mapper.writeValueAsString(userDto))
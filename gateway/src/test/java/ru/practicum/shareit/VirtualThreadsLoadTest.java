@@ -0,0 +1,103 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// the gateway blocks in real RestTemplate socket reads against a slow stand-in for the server
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shareit.threads=virtual",
+        "server.tomcat.threads.max=" + VirtualThreadsLoadTest.PLATFORM_THREADS})
+public class VirtualThreadsLoadTest {
+    static final int PLATFORM_THREADS = 8;
+    private static final int REQUESTS = 64;
+    private static final long SERVER_DELAY_MILLIS = 200;
+    private static final HttpServer SERVER = startSlowServer();
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeAll
+    public static void requireVirtualThreads() {
+        assumeTrue(Runtime.version().feature() >= 21, "Виртуальные потоки доступны начиная с JDK 21");
+    }
+
+    @AfterAll
+    public static void stopServer() {
+        SERVER.stop(0);
+    }
+
+    @DynamicPropertySource
+    static void serverProperties(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    @Test
+    public void shouldServeMoreConcurrentRequestsThanTomcatThreads() throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users")).build();
+        client.send(request, HttpResponse.BodyHandlers.discarding());
+
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            assertThat(response.get().statusCode(), equalTo(200));
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // a pool of PLATFORM_THREADS workers needs REQUESTS / PLATFORM_THREADS rounds of SERVER_DELAY_MILLIS
+        long platformThreadsFloor = REQUESTS / PLATFORM_THREADS * SERVER_DELAY_MILLIS;
+        assertThat(elapsedMillis, lessThan(platformThreadsFloor / 2));
+    }
+
+    private static HttpServer startSlowServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), REQUESTS);
+            server.createContext("/users", exchange -> {
+                try {
+                    Thread.sleep(SERVER_DELAY_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.Util;
+
+import java.util.function.Consumer;
+
+public interface CacheInvalidationBus {
+    String ITEMS = "items";
+    String USERS = "users";
+    String CATALOG = "catalog";
+    String AVAILABILITY = "availability";
+
+    void publish(String cache, Long key);
+
+    void subscribe(String cache, Consumer<Long> listener);
+
+    // the listener is not called for this instance's own publications
+    void subscribeRemote(String cache, Consumer<Long> listener);
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.Util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+// versions live in the catalog_versions table, so every replica hands out the same ETag for the same data;
+// each ETag reads only the rows of its own scope, so a write changes only the tags of the data it touched
+@Component
+public class CatalogVersion {
+    // item and request writes are spread over shards, so concurrent writers do not queue on one row
+    static final int SHARDS = 16;
+    static final String ITEMS = "items:";
+    static final String REQUESTS = "requests:";
+    static final String BOOKINGS = "bookings:";
+    private static final String INCREMENT = "update catalog_versions set version = version + 1 where name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final CacheInvalidationBus invalidationBus;
+    private final ExpiringCache<String, Long> versions;
+
+    public CatalogVersion(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          CacheInvalidationBus invalidationBus,
+                          @Value("${shareit.cache.version.size:100000}") int size,
+                          @Value("${shareit.cache.version.ttl-seconds:300}") long ttlSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.invalidationBus = invalidationBus;
+        this.versions = new ExpiringCache<>(size, Duration.ofSeconds(ttlSeconds));
+        invalidationBus.subscribe(CacheInvalidationBus.CATALOG, key -> versions.clear());
+    }
+
+    public void bumpItem(Long itemId) {
+        increment(List.of(ITEMS + shard(itemId)));
+    }
+
+    public void bumpRequest(Long requestId) {
+        increment(List.of(REQUESTS + shard(requestId)));
+    }
+
+    // bookings are listed per booker and per item owner, so those are the users whose tags change
+    public void bumpBookings(Collection<Long> userIds) {
+        increment(userIds.stream().filter(Objects::nonNull).map(userId -> BOOKINGS + userId)
+                .collect(Collectors.toList()));
+    }
+
+    public String itemsETag() {
+        return "\"" + version(ITEMS) + "\"";
+    }
+
+    // the request listings depend on who asks, so the tag does too
+    public String requestsETag(Long userId) {
+        return "\"" + version(REQUESTS) + "-" + userId + "\"";
+    }
+
+    public String bookingsETag(Long userId) {
+        return "\"" + version(BOOKINGS + userId) + "-" + userId + "\"";
+    }
+
+    private void increment(Collection<String> names) {
+        if (names.isEmpty()) return;
+        // rows are locked in one order, so two writers bumping the same users cannot deadlock
+        List<String> sortedNames = names.stream().distinct().sorted().collect(Collectors.toList());
+        for (String name : sortedNames) {
+            if (jdbcTemplate.update(INCREMENT, name) == 0) {
+                createRow(name);
+                jdbcTemplate.update(INCREMENT, name);
+            }
+        }
+        // other replicas must not re-read the versions before the bump is visible to them
+        Util.afterCommit(() -> invalidationBus.publish(CacheInvalidationBus.CATALOG, null));
+    }
+
+    // a failed insert would abort the caller's transaction on PostgreSQL, so the row is created in its own one
+    private void createRow(String name) {
+        newTransaction.executeWithoutResult(status -> {
+            try {
+                jdbcTemplate.update("insert into catalog_versions (name, version) values (?, 0)", name);
+            } catch (DuplicateKeyException ignored) {
+                // created by a concurrent bump
+            }
+        });
+    }
+
+    // a sharded scope is the sum of its shards, which grows with every bump of any of them
+    private long version(String name) {
+        return versions.get(name, key -> key.endsWith(":")
+                ? jdbcTemplate.queryForObject("select coalesce(sum(version), 0) from catalog_versions " +
+                "where name like ?", Long.class, key + "%")
+                : jdbcTemplate.queryForObject("select coalesce(max(version), 0) from catalog_versions " +
+                "where name = ?", Long.class, key));
+    }
+
+    private static long shard(Long id) {
+        return Math.floorMod(id, SHARDS);
+    }
+}
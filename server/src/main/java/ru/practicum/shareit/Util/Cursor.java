@@ -0,0 +1,58 @@
+package ru.practicum.shareit.Util;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.CursorNotValidException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class Cursor {
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime time;
+    private final Long id;
+
+    public static Cursor of(Long id) {
+        return new Cursor(null, id);
+    }
+
+    public static Cursor of(LocalDateTime time, Long id) {
+        return new Cursor(time, id);
+    }
+
+    public String encode() {
+        String value = (time == null ? "" : time.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String token) {
+        if (token.isEmpty()) return null;
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator < 0) throw new CursorNotValidException("Некорректный курсор пагинации");
+            String time = value.substring(0, separator);
+            return new Cursor(time.isEmpty() ? null : LocalDateTime.parse(time),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new CursorNotValidException("Некорректный курсор пагинации");
+        }
+    }
+
+    public static <T> ResponseEntity<List<T>> toResponse(List<T> content, int size, Function<T, Cursor> key) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (content.size() == size) {
+            response.header(Util.HEADER_NEXT_CURSOR, key.apply(content.get(content.size() - 1)).encode());
+        }
+        return response.body(content);
+    }
+}
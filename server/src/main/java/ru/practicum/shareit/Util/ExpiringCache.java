@@ -0,0 +1,123 @@
+package ru.practicum.shareit.Util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+public class ExpiringCache<K, V> {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long version;
+
+    public ExpiringCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    public ExpiringCache(int maxSize, Duration ttl, LongSupplier ticker) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > ExpiringCache.this.maxSize;
+            }
+        };
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        long loadVersion;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt - ticker.getAsLong() > 0) return entry.value;
+                entries.remove(key);
+            }
+            loadVersion = version;
+        }
+        V value = loader.apply(key);
+        if (value != null && maxSize > 0) {
+            synchronized (this) {
+                // an eviction while loading may have made the value stale, so it is served but not stored
+                if (version == loadVersion) entries.put(key, new Entry<>(value, ticker.getAsLong() + ttlNanos));
+            }
+        }
+        return value;
+    }
+
+    public synchronized V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) return null;
+        if (entry.expiresAt - ticker.getAsLong() > 0) return entry.value;
+        entries.remove(key);
+        return null;
+    }
+
+    public synchronized void put(K key, V value) {
+        if (value != null && maxSize > 0) entries.put(key, new Entry<>(value, ticker.getAsLong() + ttlNanos));
+    }
+
+    // the loader gets all missing keys at once, so a batch of misses costs one load
+    public Map<K, V> getAll(Collection<K> keys, Function<List<K>, Map<K, V>> loader) {
+        Map<K, V> result = new HashMap<>();
+        List<K> missing = new ArrayList<>();
+        long loadVersion;
+        synchronized (this) {
+            long now = ticker.getAsLong();
+            for (K key : keys) {
+                Entry<V> entry = entries.get(key);
+                if (entry != null && entry.expiresAt - now > 0) {
+                    result.put(key, entry.value);
+                } else {
+                    if (entry != null) entries.remove(key);
+                    missing.add(key);
+                }
+            }
+            loadVersion = version;
+        }
+        if (missing.isEmpty()) return result;
+        Map<K, V> loaded = loader.apply(missing);
+        result.putAll(loaded);
+        if (maxSize > 0) {
+            synchronized (this) {
+                if (version == loadVersion) {
+                    long expiresAt = ticker.getAsLong() + ttlNanos;
+                    loaded.forEach((key, value) -> entries.put(key, new Entry<>(value, expiresAt)));
+                }
+            }
+        }
+        return result;
+    }
+
+    public synchronized void evict(K key) {
+        entries.remove(key);
+        version++;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        version++;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
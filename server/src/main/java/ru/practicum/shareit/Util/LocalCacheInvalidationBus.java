@@ -0,0 +1,46 @@
+package ru.practicum.shareit.Util;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+@Component
+@ConditionalOnProperty(name = "shareit.cache.invalidation", havingValue = "local", matchIfMissing = true)
+public class LocalCacheInvalidationBus implements CacheInvalidationBus {
+    private final Map<String, List<Consumer<Long>>> listeners = new ConcurrentHashMap<>();
+    private final Map<String, List<Consumer<Long>>> remoteListeners = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(String cache, Long key) {
+        listeners.getOrDefault(cache, List.of()).forEach(listener -> listener.accept(key));
+    }
+
+    @Override
+    public void subscribe(String cache, Consumer<Long> listener) {
+        listeners.computeIfAbsent(cache, name -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @Override
+    public void subscribeRemote(String cache, Consumer<Long> listener) {
+        remoteListeners.computeIfAbsent(cache, name -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    // delivers an eviction published by another instance
+    public void receive(String cache, Long key) {
+        publish(cache, key);
+        remoteListeners.getOrDefault(cache, List.of()).forEach(listener -> listener.accept(key));
+    }
+
+    public void clearAll() {
+        Set<String> caches = new HashSet<>(listeners.keySet());
+        caches.addAll(remoteListeners.keySet());
+        caches.forEach(cache -> receive(cache, null));
+    }
+}
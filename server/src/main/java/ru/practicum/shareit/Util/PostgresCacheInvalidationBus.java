@@ -0,0 +1,109 @@
+package ru.practicum.shareit.Util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.cache.invalidation", havingValue = "postgres")
+public class PostgresCacheInvalidationBus implements CacheInvalidationBus {
+    private static final String CHANNEL = "shareit_cache";
+    private static final int POLL_MILLIS = 1000;
+    private static final long RECONNECT_MILLIS = 5000;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final LocalCacheInvalidationBus local = new LocalCacheInvalidationBus();
+    private final String instanceId = UUID.randomUUID().toString();
+    private volatile boolean running;
+    private Thread listener;
+
+    public PostgresCacheInvalidationBus(DataSource dataSource, JdbcTemplate jdbcTemplate) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void publish(String cache, Long key) {
+        local.publish(cache, key);
+        String payload = instanceId + "|" + cache + "|" + (key == null ? "" : key);
+        jdbcTemplate.execute("select pg_notify(?, ?)", (PreparedStatementCallback<Boolean>) statement -> {
+            statement.setString(1, CHANNEL);
+            statement.setString(2, payload);
+            return statement.execute();
+        });
+    }
+
+    @Override
+    public void subscribe(String cache, Consumer<Long> listener) {
+        local.subscribe(cache, listener);
+    }
+
+    @Override
+    public void subscribeRemote(String cache, Consumer<Long> listener) {
+        local.subscribeRemote(cache, listener);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        listener.interrupt();
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // notifications sent while we were not listening are lost, so start from empty caches
+                local.clearAll();
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications == null) continue;
+                    for (PGNotification notification : notifications) {
+                        receive(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) return;
+                log.warn("PostgresCacheInvalidationBus => connection lost: {}", e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_MILLIS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        String[] parts = payload.split("\\|", -1);
+        if (parts.length != 3 || parts[0].equals(instanceId)) return;
+        local.receive(parts[1], parts[2].isEmpty() ? null : Long.valueOf(parts[2]));
+    }
+}
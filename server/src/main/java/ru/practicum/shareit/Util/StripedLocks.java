@@ -0,0 +1,56 @@
+package ru.practicum.shareit.Util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@Component
+public class StripedLocks {
+    private final boolean enabled;
+    private final ReentrantLock[] stripes;
+
+    public StripedLocks(@Value("${shareit.booking.approval-lock.enabled:false}") boolean enabled,
+                        @Value("${shareit.booking.approval-lock.stripes:64}") int stripes) {
+        this.enabled = enabled;
+        this.stripes = new ReentrantLock[enabled ? stripes : 0];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withLock(long key, Supplier<T> action) {
+        if (!enabled) return action.get();
+        ReentrantLock lock = stripes[stripe(key)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // stripes are taken in index order, so two callers locking overlapping key sets cannot deadlock
+    public <T> T withLocks(Collection<Long> keys, Supplier<T> action) {
+        if (!enabled) return action.get();
+        int[] indexes = keys.stream().mapToInt(this::stripe).distinct().sorted().toArray();
+        int locked = 0;
+        try {
+            for (int index : indexes) {
+                stripes[index].lock();
+                locked++;
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    private int stripe(long key) {
+        return Math.floorMod(Long.hashCode(key) * 0x9E3779B9, stripes.length);
+    }
+}
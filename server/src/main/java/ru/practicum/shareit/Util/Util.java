@@ -1,5 +1,32 @@
 package ru.practicum.shareit.Util;
 
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
 public class Util {
     public static final String HEADER_USER_ID = "X-Sharer-User-Id";
+    public static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
+    public static final String HEADER_TOTAL_COUNT = "X-Total-Count";
+
+    public static <T> ResponseEntity<T> withTotalCount(ResponseEntity<T> response, long totalCount) {
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(HEADER_TOTAL_COUNT, String.valueOf(totalCount))
+                .body(response.getBody());
+    }
+
+    // runs the action once the current transaction commits, or right away outside a transaction
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
@@ -2,22 +2,31 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.Util.CatalogVersion;
+import ru.practicum.shareit.Util.Cursor;
 import ru.practicum.shareit.Util.Util;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.SendingBookingDto;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 @Slf4j
 public class BookingController {
+    // CURRENT, PAST and FUTURE lists change with the clock, not only with writes
+    private static final Set<String> VERSIONED_STATES = Set.of("ALL", "WAITING", "REJECTED");
 
     private final BookingService bookingService;
+    private final CatalogVersion catalogVersion;
 
     @PostMapping
     public SendingBookingDto addBooking(@RequestBody BookingDto bookingDto,
@@ -37,32 +46,73 @@ public class BookingController {
         return bookingService.approveBooking(ownerId, bookingId, approved);
     }
 
+    @PatchMapping
+    public List<BookingApprovalResultDto> approveBookings(@RequestHeader(Util.HEADER_USER_ID) Long ownerId,
+                                                          @RequestBody List<Long> bookingIds,
+                                                          @RequestParam("approved") Boolean approved) {
+        log.info("BookingController => approveBookings: ownerId={}, bookingIds={}, approved={}", ownerId, bookingIds,
+                approved);
+        return bookingService.approveBookings(ownerId, bookingIds, approved);
+    }
+
     @GetMapping("/{bookingId}")
     public SendingBookingDto getBooking(@RequestHeader(Util.HEADER_USER_ID) Long userId,
-                                        @PathVariable Long bookingId) {
+                                        @PathVariable Long bookingId,
+                                        WebRequest webRequest) {
         log.info("BookingController => getBooking: userId={}, bookingId={}", userId, bookingId);
+        if (webRequest.checkNotModified(catalogVersion.bookingsETag(userId))) return null;
         return bookingService.getBooking(userId, bookingId);
     }
 
     @GetMapping
-    public List<SendingBookingDto> getListOfUsersBookings(
+    public ResponseEntity<List<SendingBookingDto>> getListOfUsersBookings(
             @RequestHeader(Util.HEADER_USER_ID) Long bookerId,
             @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
             @RequestParam(value = "from", defaultValue = "0") int from,
-            @RequestParam(value = "size", defaultValue = "10") int size) {
-        log.info("BookingController => getListOfUsersBookings: bookerId={}, state={}, from={}, size={}", bookerId,
-                state, from, size);
-        return bookingService.getListOfBookingsUserItemsOrUserBookings(bookerId, state, from, size, false);
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "total", defaultValue = "false") boolean total,
+            WebRequest webRequest) {
+        log.info("BookingController => getListOfUsersBookings: bookerId={}, state={}, from={}, size={}, cursor={}",
+                bookerId, state, from, size, cursor);
+        if (VERSIONED_STATES.contains(state) && webRequest.checkNotModified(catalogVersion.bookingsETag(bookerId))) {
+            return null;
+        }
+        ResponseEntity<List<SendingBookingDto>> response;
+        if (cursor == null) {
+            response = ResponseEntity.ok(bookingService.getListOfBookingsUserItemsOrUserBookings(bookerId, state, from,
+                    size, false));
+        } else {
+            response = Cursor.toResponse(bookingService.getListOfBookingsUserItemsOrUserBookingsAfter(bookerId, state,
+                    cursor, size, false), size, booking -> Cursor.of(booking.getStart(), booking.getId()));
+        }
+        if (!total) return response;
+        return Util.withTotalCount(response, bookingService.countBookingsUserItemsOrUserBookings(bookerId, state, false));
     }
 
     @GetMapping("/owner")
-    public List<SendingBookingDto> getListOfBookingsUserItems(
+    public ResponseEntity<List<SendingBookingDto>> getListOfBookingsUserItems(
             @RequestHeader(Util.HEADER_USER_ID) Long ownerId,
             @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
             @RequestParam(value = "from", defaultValue = "0") int from,
-            @RequestParam(value = "size", defaultValue = "10") int size) {
-        log.info("BookingController => getListOfBookingsUserItems: ownerId={}, state={}, from={}, size={}", ownerId,
-                state, from, size);
-        return bookingService.getListOfBookingsUserItemsOrUserBookings(ownerId, state, from, size, true);
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "total", defaultValue = "false") boolean total,
+            WebRequest webRequest) {
+        log.info("BookingController => getListOfBookingsUserItems: ownerId={}, state={}, from={}, size={}, cursor={}",
+                ownerId, state, from, size, cursor);
+        if (VERSIONED_STATES.contains(state) && webRequest.checkNotModified(catalogVersion.bookingsETag(ownerId))) {
+            return null;
+        }
+        ResponseEntity<List<SendingBookingDto>> response;
+        if (cursor == null) {
+            response = ResponseEntity.ok(bookingService.getListOfBookingsUserItemsOrUserBookings(ownerId, state, from,
+                    size, true));
+        } else {
+            response = Cursor.toResponse(bookingService.getListOfBookingsUserItemsOrUserBookingsAfter(ownerId, state,
+                    cursor, size, true), size, booking -> Cursor.of(booking.getStart(), booking.getId()));
+        }
+        if (!total) return response;
+        return Util.withTotalCount(response, bookingService.countBookingsUserItemsOrUserBookings(ownerId, state, true));
     }
 }
@@ -4,6 +4,8 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.user.dto.UserMapper;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Objects;
 
 public class BookingMapper {
@@ -23,12 +25,17 @@ public class BookingMapper {
     public static Booking toBooking(BookingDto bookingDto) {
         return Booking.builder()
                 .id(bookingDto.getId())
-                .start(bookingDto.getStart())
-                .end(bookingDto.getEnd())
+                .start(toStoredPrecision(bookingDto.getStart()))
+                .end(toStoredPrecision(bookingDto.getEnd()))
                 .status(bookingDto.getStatus())
                 .build();
     }
 
+    // timestamp columns keep microseconds, so a saved booking reads back exactly as it was returned
+    private static LocalDateTime toStoredPrecision(LocalDateTime dateTime) {
+        return Objects.isNull(dateTime) ? null : dateTime.truncatedTo(ChronoUnit.MICROS);
+    }
+
     public static SendingBookingDto toExtendedBookingDto(Booking booking) {
         return SendingBookingDto.builder()
                 .id(booking.getId())
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import ru.practicum.shareit.booking.model.Status;
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class SendingBookingDto {
     private Long id;
     private LocalDateTime start;
@@ -17,4 +19,27 @@ public class SendingBookingDto {
     private ItemDto item;
     private UserDto booker;
     private Status status;
+
+    public SendingBookingDto(Long id, LocalDateTime start, LocalDateTime end, Status status,
+                             Long itemId, String itemName, String itemDescription, Boolean itemAvailable,
+                             Long itemOwnerId, Long itemRequestId,
+                             Long bookerId, String bookerName, String bookerEmail) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        this.status = status;
+        this.item = ItemDto.builder()
+                .id(itemId)
+                .name(itemName)
+                .description(itemDescription)
+                .available(itemAvailable)
+                .ownerId(itemOwnerId)
+                .requestId(itemRequestId)
+                .build();
+        this.booker = UserDto.builder()
+                .id(bookerId)
+                .name(bookerName)
+                .email(bookerEmail)
+                .build();
+    }
 }
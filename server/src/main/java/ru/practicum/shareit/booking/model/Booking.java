@@ -32,4 +32,8 @@ public class Booking {
     private User booker;
     @Enumerated(EnumType.STRING)
     private Status status;
+    @Column(name = "item_owner_id")
+    private Long itemOwnerId;
+    @Version
+    private Long version;
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.SendingBookingDto;
 
@@ -10,8 +11,15 @@ public interface BookingService {
 
     SendingBookingDto approveBooking(Long ownerId, Long bookingId, Boolean approved);
 
+    List<BookingApprovalResultDto> approveBookings(Long ownerId, List<Long> bookingIds, Boolean approved);
+
     SendingBookingDto getBooking(Long userId, Long bookingId);
 
     List<SendingBookingDto> getListOfBookingsUserItemsOrUserBookings(Long ownerId, String state, int from, int size,
                                                                      boolean isOwner);
+
+    List<SendingBookingDto> getListOfBookingsUserItemsOrUserBookingsAfter(Long userId, String state, String cursor,
+                                                                          int size, boolean isOwner);
+
+    long countBookingsUserItemsOrUserBookings(Long userId, String state, boolean isOwner);
 }
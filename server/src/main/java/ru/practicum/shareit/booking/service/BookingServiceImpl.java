@@ -1,41 +1,57 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.Util.CatalogVersion;
+import ru.practicum.shareit.Util.Cursor;
 import ru.practicum.shareit.Util.DateTimeService;
+import ru.practicum.shareit.Util.StripedLocks;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.SendingBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.storage.AvailabilityIndex;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.storage.UserRepository;
-
+import ru.practicum.shareit.user.storage.UserCache;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    private static final int MAX_APPROVE_ATTEMPTS = 3;
 
     private final BookingRepository bookingStorage;
-    private final UserRepository userStorage;
+    private final UserCache userCache;
     private final ItemRepository itemStorage;
     private final DateTimeService dateTimeService;
+    private final AvailabilityIndex availabilityIndex;
+    private final StripedLocks itemLocks;
+    private final CatalogVersion catalogVersion;
 
     @Override
     public SendingBookingDto addBooking(BookingDto bookingDto) {
-        User booker = userStorage.findById(bookingDto.getBookerId())
+        User booker = userCache.findById(bookingDto.getBookerId())
                 .orElseThrow(() -> new UserNotFoundException("Пользователя с таким id не существует"));
         Item item = itemStorage.findById(bookingDto.getItemId())
                 .orElseThrow(() -> new ItemNotFoundException("Вещи с таким id не существует"));
@@ -49,13 +65,99 @@ public class BookingServiceImpl implements BookingService {
         Booking booking = BookingMapper.toBooking(bookingDto);
         booking.setItem(item);
         booking.setBooker(booker);
-        return BookingMapper.toExtendedBookingDto(bookingStorage.save(booking));
+        booking.setItemOwnerId(item.getOwner().getId());
+        Booking savedBooking = save(booking);
+        availabilityIndex.evict(item.getId());
+        catalogVersion.bumpBookings(List.of(booker.getId(), item.getOwner().getId()));
+        return BookingMapper.toExtendedBookingDto(savedBooking);
     }
 
     @Override
     public SendingBookingDto approveBooking(Long ownerId, Long bookingId, Boolean approved) {
-        Booking booking = bookingStorage.findById(bookingId)
-                .orElseThrow(() -> new BookingNotFoundException("Бронирования с таким id не существует"));
+        // a booking never moves to another item, so only the lock key is read outside the lock
+        Long itemId = findBooking(bookingId).getItem().getId();
+        SendingBookingDto approvedBooking = itemLocks.withLock(itemId, () -> {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return applyApproval(ownerId, findBooking(bookingId), approved);
+                } catch (ObjectOptimisticLockingFailureException e) {
+                    if (attempt == MAX_APPROVE_ATTEMPTS) {
+                        throw new BookingConflictException("Бронирование изменено другим запросом, повторите попытку");
+                    }
+                }
+            }
+        });
+        availabilityIndex.evict(itemId);
+        catalogVersion.bumpBookings(List.of(approvedBooking.getBooker().getId(), ownerId));
+        return approvedBooking;
+    }
+
+    // every booking is updated in its own transaction: a conflict or an overlap fails only that booking
+    @Override
+    public List<BookingApprovalResultDto> approveBookings(Long ownerId, List<Long> bookingIds, Boolean approved) {
+        if (!userCache.existsById(ownerId)) throw new UserNotFoundException("Пользователя с таким id не существует");
+        Status status = approved.equals(true) ? Status.APPROVED : Status.REJECTED;
+        List<Long> ids = bookingIds.stream().distinct().collect(Collectors.toList());
+        Map<Long, Booking> bookings = bookingStorage.findBookingsByIdInAndItemOwnerId(ids, ownerId).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        List<Booking> updatable = bookings.values().stream()
+                .filter(booking -> booking.getStatus() != Status.APPROVED)
+                .collect(Collectors.toList());
+        List<Long> itemIds = updatable.stream()
+                .map(booking -> booking.getItem().getId())
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, String> errors = new HashMap<>();
+        if (!updatable.isEmpty()) {
+            itemLocks.withLocks(itemIds, () -> {
+                updatable.forEach(booking -> updateStatus(booking.getId(), status)
+                        .ifPresent(error -> errors.put(booking.getId(), error)));
+                return null;
+            });
+            List<Booking> updated = updatable.stream()
+                    .filter(booking -> !errors.containsKey(booking.getId()))
+                    .collect(Collectors.toList());
+            if (!updated.isEmpty()) {
+                updated.stream().map(booking -> booking.getItem().getId()).distinct()
+                        .forEach(availabilityIndex::evict);
+                List<Long> userIds = updated.stream()
+                        .map(booking -> booking.getBooker().getId())
+                        .collect(Collectors.toList());
+                userIds.add(ownerId);
+                catalogVersion.bumpBookings(userIds);
+            }
+        }
+        return ids.stream()
+                .map(id -> {
+                    Booking booking = bookings.get(id);
+                    if (booking == null) return failedApproval(id, "Бронирования с таким id не существует");
+                    if (booking.getStatus() == Status.APPROVED) {
+                        return failedApproval(id, "Бронирование уже подтверждено");
+                    }
+                    if (errors.containsKey(id)) return failedApproval(id, errors.get(id));
+                    return BookingApprovalResultDto.builder().bookingId(id).status(status).build();
+                }).collect(Collectors.toList());
+    }
+
+    // a booking approved by another request since it was read is skipped by the update
+    private Optional<String> updateStatus(Long bookingId, Status status) {
+        try {
+            if (bookingStorage.updateStatusOfNotApprovedBooking(bookingId, status) == 0) {
+                return Optional.of("Бронирование изменено другим запросом, повторите попытку");
+            }
+            return Optional.empty();
+        } catch (DataIntegrityViolationException e) {
+            if (isExclusionViolation(e)) return Optional.of("Вещь уже забронирована на пересекающийся период");
+            throw e;
+        }
+    }
+
+    private static BookingApprovalResultDto failedApproval(Long bookingId, String error) {
+        return BookingApprovalResultDto.builder().bookingId(bookingId).error(error).build();
+    }
+
+    // the @Version check in save() rejects the write if the booking changed after it was read
+    private SendingBookingDto applyApproval(Long ownerId, Booking booking, Boolean approved) {
         if (booking.getStatus().equals(Status.APPROVED)) {
             throw new BookingAlreadyApprovedException("Бронирование уже подтверждено");
         }
@@ -68,12 +170,38 @@ public class BookingServiceImpl implements BookingService {
         } else {
             booking.setStatus(Status.REJECTED);
         }
-        return BookingMapper.toExtendedBookingDto(bookingStorage.save(booking));
+        return BookingMapper.toExtendedBookingDto(save(booking));
+    }
+
+    private Booking findBooking(Long bookingId) {
+        return bookingStorage.findById(bookingId)
+                .orElseThrow(() -> new BookingNotFoundException("Бронирования с таким id не существует"));
+    }
+
+    // overlapping bookings of one item are rejected by the ex_bookings_item_period exclusion constraint
+    private Booking save(Booking booking) {
+        try {
+            return bookingStorage.save(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (isExclusionViolation(e)) {
+                throw new BookingOverlapException("Вещь уже забронирована на пересекающийся период");
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isExclusionViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
     public SendingBookingDto getBooking(Long userId, Long bookingId) {
-        if (!userStorage.existsById(userId)) throw new UserNotFoundException("Пользователя с таким id не существует");
+        if (!userCache.existsById(userId)) throw new UserNotFoundException("Пользователя с таким id не существует");
         Booking booking = bookingStorage.findById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException("Бронирования с таким id не существует"));
         if (!(userId.equals(booking.getBooker().getId()) || userId.equals(booking.getItem().getOwner().getId()))) {
@@ -84,10 +212,10 @@ public class BookingServiceImpl implements BookingService {
 
     public List<SendingBookingDto> getListOfBookingsUserItemsOrUserBookings(Long userId, String state, int from,
                                                                             int size, boolean isOwner) {
-        if (!userStorage.existsById(userId)) throw new UserNotFoundException("Пользователя с таким id не существует");
+        if (!userCache.existsById(userId)) throw new UserNotFoundException("Пользователя с таким id не существует");
         int page = from / size;
-        Pageable pageable = PageRequest.of(page, size, Sort.by("Start").descending());
-        Page<Booking> bookings;
+        Pageable pageable = PageRequest.of(page, size, Sort.by("start").descending());
+        Slice<SendingBookingDto> bookings;
         LocalDateTime now = dateTimeService.now();
         switch (state) {
             case "CURRENT":
@@ -136,6 +264,24 @@ public class BookingServiceImpl implements BookingService {
                     bookings = bookingStorage.findBookingsByBookerId(userId, pageable);
                 }
         }
-        return bookings.stream().map(BookingMapper::toExtendedBookingDto).collect(Collectors.toList());
+        return bookings.getContent();
+    }
+
+    @Override
+    public List<SendingBookingDto> getListOfBookingsUserItemsOrUserBookingsAfter(Long userId, String state,
+                                                                                 String cursor, int size,
+                                                                                 boolean isOwner) {
+        if (!userCache.existsById(userId)) throw new UserNotFoundException("Пользователя с таким id не существует");
+        Cursor after = Cursor.decode(cursor);
+        if (after != null && after.getTime() == null) {
+            throw new CursorNotValidException("Некорректный курсор пагинации");
+        }
+        return bookingStorage.findBookingsAfter(userId, isOwner, state, dateTimeService.now(),
+                after == null ? null : after.getTime(), after == null ? null : after.getId(), size);
+    }
+
+    @Override
+    public long countBookingsUserItemsOrUserBookings(Long userId, String state, boolean isOwner) {
+        return bookingStorage.countBookings(userId, isOwner, state, dateTimeService.now());
     }
 }
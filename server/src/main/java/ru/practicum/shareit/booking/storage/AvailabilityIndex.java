@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.Util.CacheInvalidationBus;
+import ru.practicum.shareit.Util.ExpiringCache;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.exception.ItemNotFoundException;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+public class AvailabilityIndex {
+    private static final List<Status> BLOCKING_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingRepository bookingStorage;
+    private final ItemRepository itemStorage;
+    private final ExpiringCache<Long, Timeline> timelines;
+    private final CacheInvalidationBus invalidationBus;
+
+    public AvailabilityIndex(BookingRepository bookingStorage,
+                             ItemRepository itemStorage,
+                             CacheInvalidationBus invalidationBus,
+                             @Value("${shareit.cache.availability.size:10000}") int size,
+                             @Value("${shareit.cache.availability.ttl-seconds:300}") long ttlSeconds) {
+        this.bookingStorage = bookingStorage;
+        this.itemStorage = itemStorage;
+        this.timelines = new ExpiringCache<>(size, Duration.ofSeconds(ttlSeconds));
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(CacheInvalidationBus.AVAILABILITY, itemId -> {
+            if (itemId == null) {
+                timelines.clear();
+            } else {
+                timelines.evict(itemId);
+            }
+        });
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return timelines.get(itemId, this::load).isFree(toEpochSecond(start), toEpochSecond(end));
+    }
+
+    // keeps the order of itemIds; an id of no item fails the whole call, as in isFree
+    public List<Long> filterFree(List<Long> itemIds, LocalDateTime start, LocalDateTime end) {
+        Map<Long, Timeline> loaded = timelines.getAll(itemIds, this::loadAll);
+        long startSecond = toEpochSecond(start);
+        long endSecond = toEpochSecond(end);
+        return itemIds.stream()
+                .filter(itemId -> loaded.get(itemId).isFree(startSecond, endSecond))
+                .collect(Collectors.toList());
+    }
+
+    public void evict(Long itemId) {
+        invalidationBus.publish(CacheInvalidationBus.AVAILABILITY, itemId);
+    }
+
+    private Timeline load(Long itemId) {
+        if (!itemStorage.existsById(itemId)) throw new ItemNotFoundException("Вещи с таким id не существует");
+        return new Timeline(bookingStorage.findBookingsByItemIdAndStatusInOrderByStartAsc(itemId,
+                BLOCKING_STATUSES));
+    }
+
+    // items are never deleted, so only the ids missing from the cache need the existence check
+    private Map<Long, Timeline> loadAll(List<Long> itemIds) {
+        if (itemStorage.countByIdIn(itemIds) != itemIds.stream().distinct().count()) {
+            throw new ItemNotFoundException("Вещи с таким id не существует");
+        }
+        Map<Long, List<Booking>> bookings = bookingStorage
+                .findBookingsByItemIdInAndStatusInOrderByStartAsc(itemIds, BLOCKING_STATUSES).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        return itemIds.stream()
+                .distinct()
+                .collect(Collectors.toMap(Function.identity(),
+                        itemId -> new Timeline(bookings.getOrDefault(itemId, List.of()))));
+    }
+
+    private static long toEpochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static class Timeline {
+        private final long[] starts;
+        // latest end among the bookings up to and including each position, so overlaps need no scan
+        private final long[] maxEnds;
+
+        private Timeline(List<Booking> bookings) {
+            this.starts = new long[bookings.size()];
+            this.maxEnds = new long[bookings.size()];
+            long maxEnd = Long.MIN_VALUE;
+            for (int i = 0; i < bookings.size(); i++) {
+                starts[i] = toEpochSecond(bookings.get(i).getStart());
+                maxEnd = Math.max(maxEnd, toEpochSecond(bookings.get(i).getEnd()));
+                maxEnds[i] = maxEnd;
+            }
+        }
+
+        private boolean isFree(long start, long end) {
+            int startingBefore = countStartsBefore(end);
+            return startingBefore == 0 || maxEnds[startingBefore - 1] <= start;
+        }
+
+        private int countStartsBefore(long time) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (starts[middle] < time) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -1,40 +1,100 @@
 package ru.practicum.shareit.booking.storage;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.SendingBookingDto;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Page<Booking> findBookingsByBookerId(Long bookerId, Pageable pageable);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    String SELECT_BOOKINGS = "select new ru.practicum.shareit.booking.dto.SendingBookingDto(b.id, b.start, b.end, " +
+            "b.status, i.id, i.name, i.description, i.available, i.owner.id, r.id, u.id, u.name, u.email) " +
+            "from Booking as b join b.item as i left join i.itemRequest as r join b.booker as u ";
 
-    Page<Booking> findBookingsByBookerIdAndStartBeforeAndEndAfter(Long bookerId,
-                                                                  LocalDateTime startTime,
-                                                                  LocalDateTime endTime, Pageable pageable);
+    @Query(SELECT_BOOKINGS + "where b.booker.id = ?1")
+    Slice<SendingBookingDto> findBookingsByBookerId(Long bookerId, Pageable pageable);
 
-    Page<Booking> findBookingsByBookerIdAndEndBefore(Long bookerId, LocalDateTime time, Pageable pageable);
+    @Query(SELECT_BOOKINGS + "where b.booker.id = ?1 and b.start < ?2 and b.end > ?3")
+    Slice<SendingBookingDto> findBookingsByBookerIdAndStartBeforeAndEndAfter(Long bookerId,
+                                                                            LocalDateTime startTime,
+                                                                            LocalDateTime endTime,
+                                                                            Pageable pageable);
 
-    Page<Booking> findBookingsByBookerIdAndStartAfter(Long bookerId, LocalDateTime time, Pageable pageable);
+    @Query(SELECT_BOOKINGS + "where b.booker.id = ?1 and b.end < ?2")
+    Slice<SendingBookingDto> findBookingsByBookerIdAndEndBefore(Long bookerId, LocalDateTime time, Pageable pageable);
 
-    Page<Booking> findBookingsByBookerIdAndStatus(Long bookerId, Status status, Pageable pageable);
+    @Query(SELECT_BOOKINGS + "where b.booker.id = ?1 and b.start > ?2")
+    Slice<SendingBookingDto> findBookingsByBookerIdAndStartAfter(Long bookerId, LocalDateTime time, Pageable pageable);
 
-    Page<Booking> findBookingsByItemOwnerId(Long bookerId, Pageable pageable);
+    @Query(SELECT_BOOKINGS + "where b.booker.id = ?1 and b.status = ?2")
+    Slice<SendingBookingDto> findBookingsByBookerIdAndStatus(Long bookerId, Status status, Pageable pageable);
 
-    Page<Booking> findBookingsByItemOwnerIdAndStartBeforeAndEndAfter(Long bookerId, LocalDateTime startTime,
-                                                                     LocalDateTime endTime, Pageable pageable);
+    @Query(SELECT_BOOKINGS + "where b.itemOwnerId = ?1")
+    Slice<SendingBookingDto> findBookingsByItemOwnerId(Long bookerId, Pageable pageable);
 
-    Page<Booking> findBookingsByItemOwnerIdAndEndBefore(Long bookerId, LocalDateTime time, Pageable pageable);
+    @Query(SELECT_BOOKINGS + "where b.itemOwnerId = ?1 and b.start < ?2 and b.end > ?3")
+    Slice<SendingBookingDto> findBookingsByItemOwnerIdAndStartBeforeAndEndAfter(Long bookerId,
+                                                                               LocalDateTime startTime,
+                                                                               LocalDateTime endTime,
+                                                                               Pageable pageable);
 
-    Page<Booking> findBookingsByItemOwnerIdAndStartAfter(Long bookerId, LocalDateTime time, Pageable pageable);
+    @Query(SELECT_BOOKINGS + "where b.itemOwnerId = ?1 and b.end < ?2")
+    Slice<SendingBookingDto> findBookingsByItemOwnerIdAndEndBefore(Long bookerId, LocalDateTime time, Pageable pageable);
 
-    Page<Booking> findBookingsByItemOwnerIdAndStatus(Long bookerId, Status status, Pageable pageable);
+    @Query(SELECT_BOOKINGS + "where b.itemOwnerId = ?1 and b.start > ?2")
+    Slice<SendingBookingDto> findBookingsByItemOwnerIdAndStartAfter(Long bookerId, LocalDateTime time, Pageable pageable);
+
+    @Query(SELECT_BOOKINGS + "where b.itemOwnerId = ?1 and b.status = ?2")
+    Slice<SendingBookingDto> findBookingsByItemOwnerIdAndStatus(Long bookerId, Status status, Pageable pageable);
 
     Booking findTopBookingByItemIdAndStatusNotAndStartBeforeOrderByEndDesc(Long itemId, Status status, LocalDateTime now);
 
     Booking findTopBookingByItemIdAndStatusNotAndStartAfterOrderByStartAsc(Long itemId, Status status, LocalDateTime now);
 
+    @Query(value = "select l.id, l.start_date, l.end_date, l.item_id, l.booker_id, l.status, l.item_owner_id, " +
+            "l.version from (" +
+            "select b.*, row_number() over (partition by b.item_id order by b.end_date desc) as rn " +
+            "from bookings as b where b.item_id in (:itemIds) and b.status <> :status and b.start_date < :now) as l " +
+            "where l.rn = 1 " +
+            "union all " +
+            "select n.id, n.start_date, n.end_date, n.item_id, n.booker_id, n.status, n.item_owner_id, " +
+            "n.version from (" +
+            "select b.*, row_number() over (partition by b.item_id order by b.start_date asc) as rn " +
+            "from bookings as b where b.item_id in (:itemIds) and b.status <> :status and b.start_date > :now) as n " +
+            "where n.rn = 1", nativeQuery = true)
+    List<Booking> findLastAndNextBookingsByItemIdIn(@Param("itemIds") Collection<Long> itemIds,
+                                                    @Param("status") String status,
+                                                    @Param("now") LocalDateTime now);
+
+    List<Booking> findBookingsByItemIdAndStatusInOrderByStartAsc(Long itemId, Collection<Status> statuses);
+
+    List<Booking> findBookingsByItemIdInAndStatusInOrderByStartAsc(Collection<Long> itemIds,
+                                                                   Collection<Status> statuses);
+
+    List<Booking> findBookingsByIdInAndItemOwnerId(Collection<Long> bookingIds, Long ownerId);
+
+    // bumps the version so that concurrent single approvals fail their @Version check and re-read;
+    // commits on its own, so an overlap of one booking does not undo the others of a batch
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking as b set b.status = ?2, b.version = b.version + 1 " +
+            "where b.id = ?1 and b.status <> ru.practicum.shareit.booking.model.Status.APPROVED")
+    int updateStatusOfNotApprovedBooking(Long bookingId, Status status);
+
+    @Query("select distinct b.booker.id from Booking as b where b.item.id = ?1")
+    List<Long> findBookerIdsByItemId(Long itemId);
+
+    @Query("select distinct b.itemOwnerId from Booking as b where b.booker.id = ?1")
+    List<Long> findItemOwnerIdsByBookerId(Long bookerId);
+
     Boolean existsBookingByBookerIdAndItemIdAndEndBefore(Long bookerId, Long itemId, LocalDateTime now);
 }
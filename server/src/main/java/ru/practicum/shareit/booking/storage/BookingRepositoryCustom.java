@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.storage;
+
+import ru.practicum.shareit.booking.dto.SendingBookingDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    List<SendingBookingDto> findBookingsAfter(Long userId, boolean isOwner, String state, LocalDateTime now,
+                                              LocalDateTime afterStart, Long afterId, int size);
+
+    long countBookings(Long userId, boolean isOwner, String state, LocalDateTime now);
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking.storage;
+
+import ru.practicum.shareit.booking.dto.SendingBookingDto;
+import ru.practicum.shareit.booking.model.Status;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+    private static final String COUNT_BOOKINGS = "select count(b) from Booking as b ";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<SendingBookingDto> findBookingsAfter(Long userId, boolean isOwner, String state, LocalDateTime now,
+                                                     LocalDateTime afterStart, Long afterId, int size) {
+        StringBuilder jpql = new StringBuilder(BookingRepository.SELECT_BOOKINGS);
+        appendFilter(jpql, isOwner, state);
+        if (afterId != null) {
+            jpql.append(" and (b.start < :afterStart or (b.start = :afterStart and b.id < :afterId))");
+        }
+        jpql.append(" order by b.start desc, b.id desc");
+        TypedQuery<SendingBookingDto> query = em.createQuery(jpql.toString(), SendingBookingDto.class)
+                .setMaxResults(size);
+        setFilterParameters(query, userId, state, now);
+        if (afterId != null) {
+            query.setParameter("afterStart", afterStart);
+            query.setParameter("afterId", afterId);
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public long countBookings(Long userId, boolean isOwner, String state, LocalDateTime now) {
+        StringBuilder jpql = new StringBuilder(COUNT_BOOKINGS);
+        appendFilter(jpql, isOwner, state);
+        TypedQuery<Long> query = em.createQuery(jpql.toString(), Long.class);
+        setFilterParameters(query, userId, state, now);
+        return query.getSingleResult();
+    }
+
+    private static void appendFilter(StringBuilder jpql, boolean isOwner, String state) {
+        jpql.append(isOwner ? "where b.itemOwnerId = :userId" : "where b.booker.id = :userId");
+        switch (state) {
+            case "CURRENT":
+                jpql.append(" and b.start < :now and b.end > :now");
+                break;
+            case "PAST":
+                jpql.append(" and b.end < :now");
+                break;
+            case "FUTURE":
+                jpql.append(" and b.start > :now");
+                break;
+            case "WAITING":
+            case "REJECTED":
+                jpql.append(" and b.status = :status");
+                break;
+            default:
+        }
+    }
+
+    private static void setFilterParameters(TypedQuery<?> query, Long userId, String state, LocalDateTime now) {
+        query.setParameter("userId", userId);
+        switch (state) {
+            case "CURRENT":
+            case "PAST":
+            case "FUTURE":
+                query.setParameter("now", now);
+                break;
+            case "WAITING":
+            case "REJECTED":
+                query.setParameter("status", Status.valueOf(state));
+                break;
+            default:
+        }
+    }
+}
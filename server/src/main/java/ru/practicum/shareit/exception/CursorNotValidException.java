@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class CursorNotValidException extends RuntimeException {
+    public CursorNotValidException(String message) {
+        super(message);
+    }
+}
@@ -17,6 +17,12 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler({BookingOverlapException.class, BookingConflictException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleBookingConflictExceptions(RuntimeException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleWrongOwnerException(WrongOwnerException e) {
@@ -24,7 +30,7 @@ public class ErrorHandler {
     }
 
     @ExceptionHandler({NotAvailableForBookingException.class, BookingAlreadyApprovedException.class,
-            DateNotValidException.class, UserNotValidException.class})
+            DateNotValidException.class, UserNotValidException.class, CursorNotValidException.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleBadRequestExceptions(RuntimeException e) {
         return new ErrorResponse(e.getMessage());
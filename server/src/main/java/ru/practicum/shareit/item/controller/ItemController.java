@@ -2,12 +2,19 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.Util.CatalogVersion;
+import ru.practicum.shareit.Util.Cursor;
 import ru.practicum.shareit.Util.Util;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -17,6 +24,7 @@ import java.util.List;
 public class ItemController {
 
     private final ItemService itemService;
+    private final CatalogVersion catalogVersion;
 
     @GetMapping("/{itemId}")
     public ItemDto getItemById(@RequestHeader(Util.HEADER_USER_ID) Long userId,
@@ -26,12 +34,15 @@ public class ItemController {
     }
 
     @GetMapping
-    public List<ItemDto> getItems(
+    public ResponseEntity<List<ItemDto>> getItems(
             @RequestHeader(Util.HEADER_USER_ID) Long userId,
             @RequestParam(value = "from", defaultValue = "0") int from,
-            @RequestParam(value = "size", defaultValue = "10") int size) {
-        log.info("ItemController => getItems: userId={}, from={}, size={}", userId, from, size);
-        return itemService.getItems(userId, from, size);
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        log.info("ItemController => getItems: userId={}, from={}, size={}, cursor={}", userId, from, size, cursor);
+        if (cursor == null) return ResponseEntity.ok(itemService.getItems(userId, from, size));
+        return Cursor.toResponse(itemService.getItemsAfter(userId, cursor, size), size,
+                itemDto -> Cursor.of(itemDto.getId()));
     }
 
     @PostMapping
@@ -53,12 +64,28 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItems(
+    public ResponseEntity<List<ItemDto>> searchItems(
             @RequestParam("text") String text,
             @RequestParam(value = "from", defaultValue = "0") int from,
-            @RequestParam(value = "size", defaultValue = "10") int size) {
-        log.info("ItemController => searchItems: text={}, from={}, size={}", text, from, size);
-        return itemService.searchItems(text, from, size);
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "start", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(value = "end", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            WebRequest webRequest) {
+        log.info("ItemController => searchItems: text={}, from={}, size={}, cursor={}, start={}, end={}", text, from,
+                size, cursor, start, end);
+        if (start != null || end != null) {
+            // bookings do not change the items version, so a period search is not answered with 304
+            if (cursor == null) return ResponseEntity.ok(itemService.searchItems(text, start, end, from, size));
+            return Cursor.toResponse(itemService.searchItemsAfter(text, start, end, cursor, size), size,
+                    itemDto -> Cursor.of(itemDto.getId()));
+        }
+        if (webRequest.checkNotModified(catalogVersion.itemsETag())) return null;
+        if (cursor == null) return ResponseEntity.ok(itemService.searchItems(text, from, size));
+        return Cursor.toResponse(itemService.searchItemsAfter(text, cursor, size), size,
+                itemDto -> Cursor.of(itemDto.getId()));
     }
 
     @PostMapping("/{itemId}/comment")
@@ -68,4 +95,26 @@ public class ItemController {
         log.info("ItemController => addComment: userId={}, itemId={}, commentDto={}", userId, itemId, commentDto);
         return itemService.addComment(commentDto, userId, itemId);
     }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(
+            @RequestHeader(Util.HEADER_USER_ID) Long userId,
+            @PathVariable Long itemId,
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("ItemController => getAvailability: userId={}, itemId={}, start={}, end={}", userId, itemId, start,
+                end);
+        return itemService.getAvailability(userId, itemId, start, end);
+    }
+
+    @GetMapping("/availability")
+    public List<ItemAvailabilityDto> getAvailability(
+            @RequestHeader(Util.HEADER_USER_ID) Long userId,
+            @RequestParam("ids") List<Long> itemIds,
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("ItemController => getAvailability: userId={}, itemIds={}, start={}, end={}", userId, itemIds, start,
+                end);
+        return itemService.getAvailability(userId, itemIds, start, end);
+    }
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ItemAvailabilityDto {
+    private Long itemId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Boolean free;
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.Util.CacheInvalidationBus;
+import ru.practicum.shareit.Util.ExpiringCache;
+import ru.practicum.shareit.Util.SingleFlight;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+@Component
+public class ItemCache {
+    private final ExpiringCache<Long, ItemDto> cache;
+    private final SingleFlight<Long, ItemDto> loads = new SingleFlight<>();
+    private final CacheInvalidationBus invalidationBus;
+
+    public ItemCache(CacheInvalidationBus invalidationBus,
+                     @Value("${shareit.cache.item.size:10000}") int size,
+                     @Value("${shareit.cache.item.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = new ExpiringCache<>(size, Duration.ofSeconds(ttlSeconds));
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(CacheInvalidationBus.ITEMS, itemId -> {
+            if (itemId == null) {
+                loads.forgetAll();
+                cache.clear();
+            } else {
+                loads.forget(itemId);
+                cache.evict(itemId);
+            }
+        });
+    }
+
+    public ItemDto get(Long itemId, Function<Long, ItemDto> loader) {
+        ItemDto cached = cache.get(itemId, id -> loads.execute(id, () -> {
+            ItemDto itemDto = loader.apply(id);
+            itemDto.setComments(itemDto.getComments() == null ? null : List.copyOf(itemDto.getComments()));
+            return itemDto;
+        }));
+        return ItemDto.builder()
+                .id(cached.getId())
+                .name(cached.getName())
+                .description(cached.getDescription())
+                .ownerId(cached.getOwnerId())
+                .available(cached.getAvailable())
+                .requestId(cached.getRequestId())
+                .comments(cached.getComments())
+                .build();
+    }
+
+    public void evict(Long itemId) {
+        invalidationBus.publish(CacheInvalidationBus.ITEMS, itemId);
+    }
+
+    public void evictAll() {
+        invalidationBus.publish(CacheInvalidationBus.ITEMS, null);
+    }
+}
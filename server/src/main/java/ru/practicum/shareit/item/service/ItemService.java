@@ -1,8 +1,10 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -11,11 +13,24 @@ public interface ItemService {
 
     List<ItemDto> getItems(Long userId, int from, int size);
 
+    List<ItemDto> getItemsAfter(Long userId, String cursor, int size);
+
     ItemDto addItem(ItemDto itemDto);
 
     ItemDto updateItem(ItemDto itemDto);
 
     List<ItemDto> searchItems(String text, int from, int size);
 
+    List<ItemDto> searchItemsAfter(String text, String cursor, int size);
+
+    List<ItemDto> searchItems(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+
+    List<ItemDto> searchItemsAfter(String text, LocalDateTime start, LocalDateTime end, String cursor, int size);
+
     CommentDto addComment(CommentDto commentDto, Long userId, Long itemId);
+
+    ItemAvailabilityDto getAvailability(Long userId, Long itemId, LocalDateTime start, LocalDateTime end);
+
+    List<ItemAvailabilityDto> getAvailability(Long userId, List<Long> itemIds, LocalDateTime start,
+                                              LocalDateTime end);
 }
@@ -5,26 +5,38 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.Util.CatalogVersion;
+import ru.practicum.shareit.Util.Cursor;
 import ru.practicum.shareit.Util.DateTimeService;
+import ru.practicum.shareit.Util.SingleFlight;
+import ru.practicum.shareit.booking.storage.AvailabilityIndex;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.CommentRepository;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemSearchStorage;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.user.storage.UserCache;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,22 +44,29 @@ import java.util.stream.Collectors;
 public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemStorage;
-    private final UserRepository userStorage;
+    private final ItemSearchStorage itemSearchStorage;
+    private final ItemCache itemCache;
+    private final UserCache userCache;
     private final BookingRepository bookingStorage;
     private final CommentRepository commentStorage;
     private final ItemRequestRepository itemRequestStorage;
     private final DateTimeService dateTimeService;
+    private final CatalogVersion catalogVersion;
+    private final AvailabilityIndex availabilityIndex;
+    private final SingleFlight<String, List<ItemDto>> searches = new SingleFlight<>();
 
     @Override
     public ItemDto getItemById(Long itemId, Long userId) {
-        if (!userStorage.existsById(userId)) throw new UserNotFoundException("Пользователя с таким id не существует");
-        Item item = itemStorage.findById(itemId)
-                .orElseThrow(() -> new ItemNotFoundException("Вещи с таким id не существует"));
-        ItemDto itemDto = ItemMapper.toItemDto(item,
-                commentStorage.findCommentsByItemIdOrderByCreatedDesc(itemId).stream()
-                        .map(CommentMapper::toCommentDto).collect(Collectors.toList())
-        );
-        if (item.getOwner().getId().equals(userId)) {
+        if (!userCache.existsById(userId)) throw new UserNotFoundException("Пользователя с таким id не существует");
+        ItemDto itemDto = itemCache.get(itemId, id -> {
+            Item item = itemStorage.findById(id)
+                    .orElseThrow(() -> new ItemNotFoundException("Вещи с таким id не существует"));
+            return ItemMapper.toItemDto(item,
+                    commentStorage.findCommentsByItemIdOrderByCreatedDesc(id).stream()
+                            .map(CommentMapper::toCommentDto).collect(Collectors.toList())
+            );
+        });
+        if (itemDto.getOwnerId().equals(userId)) {
             LocalDateTime now = dateTimeService.now();
             itemDto.setLastBooking(BookingMapper.toBookingDto(bookingStorage
                     .findTopBookingByItemIdAndStatusNotAndStartBeforeOrderByEndDesc(itemDto.getId(),
@@ -61,29 +80,52 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public List<ItemDto> getItems(Long userId, int from, int size) {
-        if (!userStorage.existsById(userId)) throw new UserNotFoundException("Пользователя с таким id не существует");
+        if (!userCache.existsById(userId)) throw new UserNotFoundException("Пользователя с таким id не существует");
         int page = from / size;
         Pageable pageable = PageRequest.of(page, size, Sort.by("id").ascending());
+        return toItemDtosWithBookings(itemStorage.findItemsByOwnerId(userId, pageable).getContent());
+    }
+
+    @Override
+    public List<ItemDto> getItemsAfter(Long userId, String cursor, int size) {
+        if (!userCache.existsById(userId)) throw new UserNotFoundException("Пользователя с таким id не существует");
+        Cursor after = Cursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, size, Sort.by("id").ascending());
+        return toItemDtosWithBookings(itemStorage.findItemsByOwnerIdAndIdGreaterThan(userId,
+                after == null ? 0L : after.getId(), pageable));
+    }
+
+    private List<ItemDto> toItemDtosWithBookings(List<Item> items) {
+        if (items.isEmpty()) return Collections.emptyList();
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+        Map<Long, List<CommentDto>> comments = commentStorage.findCommentsByItemIdInOrderByCreatedDesc(itemIds)
+                .stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
         LocalDateTime now = dateTimeService.now();
-        return itemStorage.findItemsByOwnerId(userId, pageable).stream()
-                .map(item -> ItemMapper.toItemDto(
-                                item,
-                                commentStorage.findCommentsByItemIdOrderByCreatedDesc(item.getId()).stream()
-                                        .map(CommentMapper::toCommentDto).collect(Collectors.toList())
-                        ))
-                .peek(itemDto -> {
-                itemDto.setLastBooking(BookingMapper.toBookingDto(bookingStorage
-                        .findTopBookingByItemIdAndStatusNotAndStartBeforeOrderByEndDesc(itemDto.getId(),
-                                Status.REJECTED, now)));
-                itemDto.setNextBooking(BookingMapper.toBookingDto(bookingStorage
-                        .findTopBookingByItemIdAndStatusNotAndStartAfterOrderByStartAsc(itemDto.getId(),
-                                Status.REJECTED, now)));
+        Map<Long, Booking> lastBookings = new HashMap<>();
+        Map<Long, Booking> nextBookings = new HashMap<>();
+        bookingStorage.findLastAndNextBookingsByItemIdIn(itemIds, Status.REJECTED.name(), now)
+                .forEach(booking -> {
+                    if (booking.getStart().isBefore(now)) {
+                        lastBookings.put(booking.getItem().getId(), booking);
+                    } else {
+                        nextBookings.put(booking.getItem().getId(), booking);
+                    }
+                });
+        return items.stream()
+                .map(item -> {
+                    ItemDto itemDto = ItemMapper.toItemDto(item,
+                            comments.getOrDefault(item.getId(), Collections.emptyList()));
+                    itemDto.setLastBooking(BookingMapper.toBookingDto(lastBookings.get(item.getId())));
+                    itemDto.setNextBooking(BookingMapper.toBookingDto(nextBookings.get(item.getId())));
+                    return itemDto;
                 }).collect(Collectors.toList());
     }
 
     @Override
     public ItemDto addItem(ItemDto itemDto) {
-        User user = userStorage.findById(itemDto.getOwnerId())
+        User user = userCache.findById(itemDto.getOwnerId())
                 .orElseThrow(() -> new UserNotFoundException("Пользователя с таким id не существует"));
         Item item = ItemMapper.toItem(itemDto);
         item.setOwner(user);
@@ -91,7 +133,14 @@ public class ItemServiceImpl implements ItemService {
             item.setItemRequest(itemRequestStorage.findById(itemDto.getRequestId())
                     .orElseThrow(() -> new ItemRequestNotFoundException("Запроса вещи с таким id не существует")));
         }
-        return ItemMapper.toItemDto(itemStorage.save(item), null);
+        Item savedItem = itemStorage.save(item);
+        itemSearchStorage.index(savedItem);
+        itemCache.evict(savedItem.getId());
+        catalogVersion.bumpItem(savedItem.getId());
+        if (Objects.nonNull(savedItem.getItemRequest())) {
+            catalogVersion.bumpRequest(savedItem.getItemRequest().getId());
+        }
+        return ItemMapper.toItemDto(savedItem, null);
     }
 
     @Override
@@ -104,7 +153,18 @@ public class ItemServiceImpl implements ItemService {
         if (Objects.nonNull(itemDto.getName())) itemFromDB.setName(itemDto.getName());
         if (Objects.nonNull(itemDto.getDescription())) itemFromDB.setDescription(itemDto.getDescription());
         if (Objects.nonNull(itemDto.getAvailable())) itemFromDB.setAvailable(itemDto.getAvailable());
-        return ItemMapper.toItemDto(itemStorage.save(itemFromDB), null);
+        Item savedItem = itemStorage.save(itemFromDB);
+        itemSearchStorage.index(savedItem);
+        itemCache.evict(savedItem.getId());
+        catalogVersion.bumpItem(savedItem.getId());
+        if (Objects.nonNull(savedItem.getItemRequest())) {
+            catalogVersion.bumpRequest(savedItem.getItemRequest().getId());
+        }
+        // bookings carry the item, so the lists of its owner and bookers change too
+        List<Long> userIds = new ArrayList<>(bookingStorage.findBookerIdsByItemId(savedItem.getId()));
+        userIds.add(savedItem.getOwner().getId());
+        catalogVersion.bumpBookings(userIds);
+        return ItemMapper.toItemDto(savedItem, null);
     }
 
     @Override
@@ -114,19 +174,94 @@ public class ItemServiceImpl implements ItemService {
         }
         int page = from / size;
         Pageable pageable = PageRequest.of(page, size);
-        return itemStorage.searchItems(text, pageable).stream().map(item -> ItemMapper.toItemDto(item, null))
+        // the items version in the key keeps a search issued after a write from joining one started before it
+        String key = catalogVersion.itemsETag() + " " + from + " " + size + " " + text;
+        return searches.execute(key, () -> itemSearchStorage.searchItems(text, pageable).stream()
+                .map(item -> ItemMapper.toItemDto(item, null))
+                .collect(Collectors.toUnmodifiableList()));
+    }
+
+    @Override
+    public List<ItemDto> searchItemsAfter(String text, String cursor, int size) {
+        if (text.isBlank()) {
+            return Collections.emptyList();
+        }
+        Cursor after = Cursor.decode(cursor);
+        return itemSearchStorage.searchItemsAfter(text, after == null ? 0L : after.getId(), size).stream()
+                .map(item -> ItemMapper.toItemDto(item, null))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ItemDto> searchItems(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        validatePeriod(start, end);
+        if (text.isBlank()) {
+            return Collections.emptyList();
+        }
+        int page = from / size;
+        Pageable pageable = PageRequest.of(page, size);
+        return itemSearchStorage.searchItemsNotBooked(text, start, end, pageable).stream()
+                .map(item -> ItemMapper.toItemDto(item, null))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ItemDto> searchItemsAfter(String text, LocalDateTime start, LocalDateTime end, String cursor,
+                                          int size) {
+        validatePeriod(start, end);
+        if (text.isBlank()) {
+            return Collections.emptyList();
+        }
+        Cursor after = Cursor.decode(cursor);
+        return itemSearchStorage.searchItemsNotBookedAfter(text, start, end, after == null ? 0L : after.getId(), size)
+                .stream()
+                .map(item -> ItemMapper.toItemDto(item, null))
                 .collect(Collectors.toList());
     }
 
     @Override
     public CommentDto addComment(CommentDto commentDto, Long userId, Long itemId) {
-        User user = userStorage.findById(userId)
+        User user = userCache.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("Пользователя с таким id не существует"));
         Item item = itemStorage.findById(itemId)
                 .orElseThrow(() -> new ItemNotFoundException("Вещи с таким id не существует"));
         if (!bookingStorage.existsBookingByBookerIdAndItemIdAndEndBefore(userId, itemId, dateTimeService.now())) {
             throw new UserNotValidException("Отзыв может оставить только арендатор вещи после завершения аренды");
         }
-        return CommentMapper.toCommentDto(commentStorage.save(CommentMapper.toComment(commentDto, user, item)));
+        CommentDto savedComment = CommentMapper.toCommentDto(commentStorage.save(CommentMapper.toComment(commentDto,
+                user, item)));
+        itemCache.evict(itemId);
+        return savedComment;
+    }
+
+    @Override
+    public ItemAvailabilityDto getAvailability(Long userId, Long itemId, LocalDateTime start, LocalDateTime end) {
+        return getAvailability(userId, List.of(itemId), start, end).get(0);
+    }
+
+    @Override
+    public List<ItemAvailabilityDto> getAvailability(Long userId, List<Long> itemIds, LocalDateTime start,
+                                                     LocalDateTime end) {
+        if (!userCache.existsById(userId)) throw new UserNotFoundException("Пользователя с таким id не существует");
+        validatePeriod(start, end);
+        List<Long> distinctIds = itemIds.stream().distinct().collect(Collectors.toList());
+        Set<Long> freeIds = new HashSet<>(availabilityIndex.filterFree(distinctIds, start, end));
+        return distinctIds.stream()
+                .map(itemId -> ItemAvailabilityDto.builder()
+                        .itemId(itemId)
+                        .start(start)
+                        .end(end)
+                        .free(freeIds.contains(itemId))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static void validatePeriod(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null) {
+            throw new DateNotValidException("Период должен содержать дату начала и дату окончания");
+        }
+        if (!start.isBefore(end)) {
+            throw new DateNotValidException("Дата начала периода должна быть раньше даты его окончания");
+        }
     }
 }
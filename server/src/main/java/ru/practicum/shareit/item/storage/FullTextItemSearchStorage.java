@@ -0,0 +1,46 @@
+package ru.practicum.shareit.item.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "fulltext")
+@RequiredArgsConstructor
+public class FullTextItemSearchStorage implements ItemSearchStorage {
+
+    private final ItemRepository itemStorage;
+
+    @Override
+    public Page<Item> searchItems(String text, Pageable pageable) {
+        return itemStorage.searchItemsByRank(text, pageable);
+    }
+
+    @Override
+    public List<Item> searchItemsAfter(String text, long id, int size) {
+        return itemStorage.searchItemsByRankAfter(text, id, PageRequest.of(0, size));
+    }
+
+    @Override
+    public Slice<Item> searchItemsNotBooked(String text, LocalDateTime start, LocalDateTime end, Pageable pageable) {
+        return itemStorage.searchItemsByRankNotBooked(text, start, end, pageable);
+    }
+
+    @Override
+    public List<Item> searchItemsNotBookedAfter(String text, LocalDateTime start, LocalDateTime end, long id,
+                                                int size) {
+        return itemStorage.searchItemsByRankNotBookedAfter(text, start, end, id, PageRequest.of(0, size));
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+}
@@ -0,0 +1,321 @@
+package ru.practicum.shareit.item.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.Util.CacheInvalidationBus;
+import ru.practicum.shareit.booking.storage.AvailabilityIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "memory")
+public class InMemoryItemSearchStorage implements ItemSearchStorage {
+    private static final int GRAM_LENGTH = 3;
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final int MIN_AVAILABILITY_BATCH = 32;
+    private static final int MAX_AVAILABILITY_BATCH = 500;
+
+    private final ItemRepository itemStorage;
+    private final AvailabilityIndex availabilityIndex;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index current = new Index();
+    private Map<Long, IndexedItem> changedDuringLoad;
+
+    public InMemoryItemSearchStorage(ItemRepository itemStorage, AvailabilityIndex availabilityIndex,
+                                     CacheInvalidationBus invalidationBus) {
+        this.itemStorage = itemStorage;
+        this.availabilityIndex = availabilityIndex;
+        // local writes are applied through index(), so only item writes on other replicas are re-read
+        invalidationBus.subscribeRemote(CacheInvalidationBus.ITEMS, this::refresh);
+    }
+
+    // the new index is built aside and swapped in, so searches keep using the old one until it is complete
+    @PostConstruct
+    public synchronized void load() {
+        lock.writeLock().lock();
+        try {
+            changedDuringLoad = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Index loaded = new Index();
+        Page<Item> page = itemStorage.findAll(PageRequest.of(0, LOAD_BATCH_SIZE, Sort.by("id").ascending()));
+        page.forEach(item -> loaded.put(new IndexedItem(item)));
+        while (page.hasNext()) {
+            page = itemStorage.findAll(page.nextPageable());
+            page.forEach(item -> loaded.put(new IndexedItem(item)));
+        }
+        lock.writeLock().lock();
+        try {
+            // writes indexed while the pages were read may be missing from them
+            changedDuringLoad.forEach((id, indexedItem) -> {
+                if (indexedItem == null) {
+                    loaded.remove(id);
+                } else {
+                    loaded.put(indexedItem);
+                }
+            });
+            changedDuringLoad = null;
+            current = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Page<Item> searchItems(String text, Pageable pageable) {
+        String query = text.toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            List<Item> content = new ArrayList<>();
+            long total = 0;
+            for (long id : candidates(query)) {
+                IndexedItem indexedItem = current.items.get(id);
+                if (!indexedItem.available || !indexedItem.contains(query)) continue;
+                if (total >= pageable.getOffset() && content.size() < pageable.getPageSize()) {
+                    content.add(indexedItem.toItem());
+                }
+                total++;
+            }
+            return new PageImpl<>(content, pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> searchItemsAfter(String text, long id, int size) {
+        String query = text.toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            long[] candidates = candidates(query);
+            int position = Arrays.binarySearch(candidates, id);
+            position = position >= 0 ? position + 1 : -position - 1;
+            List<Item> content = new ArrayList<>();
+            for (; position < candidates.length && content.size() < size; position++) {
+                IndexedItem indexedItem = current.items.get(candidates[position]);
+                if (indexedItem.available && indexedItem.contains(query)) content.add(indexedItem.toItem());
+            }
+            return content;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // text matches come from the index; availability is checked outside the lock, in batches, only until one item
+    // past the requested page is found
+    @Override
+    public Slice<Item> searchItemsNotBooked(String text, LocalDateTime start, LocalDateTime end, Pageable pageable) {
+        long[] matches = matches(text.toLowerCase(Locale.ROOT), 0L);
+        int offset = (int) pageable.getOffset();
+        List<Long> free = freeIds(matches, offset + pageable.getPageSize() + 1, start, end);
+        List<Long> pageIds = free.subList(Math.min(offset, free.size()),
+                Math.min(offset + pageable.getPageSize(), free.size()));
+        return new SliceImpl<>(toItems(pageIds), pageable, free.size() > offset + pageable.getPageSize());
+    }
+
+    @Override
+    public List<Item> searchItemsNotBookedAfter(String text, LocalDateTime start, LocalDateTime end, long id,
+                                                int size) {
+        return toItems(freeIds(matches(text.toLowerCase(Locale.ROOT), id), size, start, end));
+    }
+
+    private long[] matches(String query, long afterId) {
+        lock.readLock().lock();
+        try {
+            long[] candidates = candidates(query);
+            int position = Arrays.binarySearch(candidates, afterId);
+            position = position >= 0 ? position + 1 : -position - 1;
+            long[] result = new long[candidates.length - position];
+            int count = 0;
+            for (; position < candidates.length; position++) {
+                IndexedItem indexedItem = current.items.get(candidates[position]);
+                if (indexedItem.available && indexedItem.contains(query)) result[count++] = indexedItem.id;
+            }
+            return Arrays.copyOf(result, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Long> freeIds(long[] ids, int limit, LocalDateTime start, LocalDateTime end) {
+        int batchSize = Math.min(Math.max(limit * 2, MIN_AVAILABILITY_BATCH), MAX_AVAILABILITY_BATCH);
+        List<Long> free = new ArrayList<>();
+        for (int from = 0; from < ids.length && free.size() < limit; from += batchSize) {
+            List<Long> batch = new ArrayList<>();
+            for (int i = from; i < Math.min(ids.length, from + batchSize); i++) {
+                batch.add(ids[i]);
+            }
+            free.addAll(availabilityIndex.filterFree(batch, start, end));
+        }
+        return free.size() > limit ? free.subList(0, limit) : free;
+    }
+
+    private List<Item> toItems(List<Long> ids) {
+        lock.readLock().lock();
+        try {
+            List<Item> result = new ArrayList<>();
+            for (Long id : ids) {
+                IndexedItem indexedItem = current.items.get(id);
+                if (indexedItem != null) result.add(indexedItem.toItem());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Item item) {
+        IndexedItem indexedItem = new IndexedItem(item);
+        lock.writeLock().lock();
+        try {
+            current.put(indexedItem);
+            if (changedDuringLoad != null) changedDuringLoad.put(indexedItem.id, indexedItem);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void refresh(Long itemId) {
+        if (itemId == null) {
+            load();
+        } else {
+            itemStorage.findById(itemId).ifPresentOrElse(this::index, () -> remove(itemId));
+        }
+    }
+
+    private void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            current.remove(id);
+            if (changedDuringLoad != null) changedDuringLoad.put(id, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long[] candidates(String query) {
+        if (query.length() < GRAM_LENGTH) return current.availableIds.toArray();
+        List<PostingList> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            PostingList postingList = current.postings.get(gram);
+            if (postingList == null) return new long[0];
+            lists.add(postingList);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        long[] result = lists.get(0).toArray();
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = lists.get(i).retainAll(result);
+        }
+        return result;
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static class Index {
+        private final Map<String, PostingList> postings = new HashMap<>();
+        private final Map<Long, IndexedItem> items = new HashMap<>();
+        private final PostingList availableIds = new PostingList();
+
+        void put(IndexedItem indexedItem) {
+            long id = indexedItem.id;
+            IndexedItem previous = items.put(id, indexedItem);
+            Set<String> oldGrams = previous == null ? Collections.emptySet() : previous.grams();
+            Set<String> newGrams = indexedItem.grams();
+            for (String gram : oldGrams) {
+                if (!newGrams.contains(gram)) removePosting(gram, id);
+            }
+            for (String gram : newGrams) {
+                if (!oldGrams.contains(gram)) postings.computeIfAbsent(gram, key -> new PostingList()).add(id);
+            }
+            if (indexedItem.available) {
+                availableIds.add(id);
+            } else {
+                availableIds.remove(id);
+            }
+        }
+
+        void remove(long id) {
+            IndexedItem previous = items.remove(id);
+            if (previous == null) return;
+            for (String gram : previous.grams()) {
+                removePosting(gram, id);
+            }
+            availableIds.remove(id);
+        }
+
+        private void removePosting(String gram, long id) {
+            PostingList postingList = postings.get(gram);
+            postingList.remove(id);
+            if (postingList.isEmpty()) postings.remove(gram);
+        }
+    }
+
+    // keeps the display strings only; matching is case-insensitive so no lower-cased copies are held
+    private static class IndexedItem {
+        private final long id;
+        private final String name;
+        private final String description;
+        private final boolean available;
+        private final Long ownerId;
+        private final Long requestId;
+
+        IndexedItem(Item item) {
+            this.id = item.getId();
+            this.name = item.getName();
+            this.description = item.getDescription();
+            this.available = Boolean.TRUE.equals(item.getAvailable());
+            this.ownerId = item.getOwner().getId();
+            this.requestId = item.getItemRequest() == null ? null : item.getItemRequest().getId();
+        }
+
+        boolean contains(String query) {
+            return containsIgnoreCase(name, query) || containsIgnoreCase(description, query);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = InMemoryItemSearchStorage.grams(name.toLowerCase(Locale.ROOT));
+            grams.addAll(InMemoryItemSearchStorage.grams(description.toLowerCase(Locale.ROOT)));
+            return grams;
+        }
+
+        Item toItem() {
+            return Item.builder()
+                    .id(id)
+                    .name(name)
+                    .description(description)
+                    .available(available)
+                    .owner(User.builder().id(ownerId).build())
+                    .itemRequest(requestId == null ? null : ItemRequest.builder().id(requestId).build())
+                    .build();
+        }
+
+        private static boolean containsIgnoreCase(String value, String query) {
+            for (int i = 0; i + query.length() <= value.length(); i++) {
+                if (value.regionMatches(true, i, query, 0, query.length())) return true;
+            }
+            return false;
+        }
+    }
+}
@@ -2,18 +2,104 @@ package ru.practicum.shareit.item.storage;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    String NOT_BOOKED_IN_PERIOD = "and not exists (select b.id from Booking as b where b.item = i " +
+            "and b.status <> ru.practicum.shareit.booking.model.Status.REJECTED " +
+            "and b.status <> ru.practicum.shareit.booking.model.Status.CANCELED " +
+            "and b.end > :start and b.start < :end) ";
+    // served by the gist index of the ex_bookings_item_period exclusion constraint
+    String NOT_BOOKED_IN_PERIOD_NATIVE = "and not exists (select 1 from bookings as b where b.item_id = i.id " +
+            "and b.status not in ('REJECTED', 'CANCELED') " +
+            "and tsrange(b.start_date, b.end_date, '[)') " +
+            "&& tsrange(cast(:start as timestamp), cast(:end as timestamp), '[)')) ";
+
     Page<Item> findItemsByOwnerId(Long userId, Pageable pageable);
 
+    List<Item> findItemsByOwnerIdAndIdGreaterThan(Long userId, Long id, Pageable pageable);
+
     @Query("select i from Item as i where i.available = true and (lower(i.name) like lower(concat('%', ?1, '%')) " +
             "or lower(i.description) like lower(concat('%', ?1, '%')))")
     Page<Item> searchItems(String text, Pageable pageable);
 
+    @Query("select i from Item as i where i.available = true and i.id > ?2 " +
+            "and (lower(i.name) like lower(concat('%', ?1, '%')) " +
+            "or lower(i.description) like lower(concat('%', ?1, '%')))")
+    List<Item> searchItemsAfter(String text, Long id, Pageable pageable);
+
+    @Query("select i from Item as i where i.available = true and (lower(i.name) like lower(concat('%', :text, '%')) " +
+            "or lower(i.description) like lower(concat('%', :text, '%'))) " + NOT_BOOKED_IN_PERIOD)
+    Slice<Item> searchItemsNotBooked(@Param("text") String text,
+                                     @Param("start") LocalDateTime start,
+                                     @Param("end") LocalDateTime end,
+                                     Pageable pageable);
+
+    @Query("select i from Item as i where i.available = true and i.id > :id " +
+            "and (lower(i.name) like lower(concat('%', :text, '%')) " +
+            "or lower(i.description) like lower(concat('%', :text, '%'))) " + NOT_BOOKED_IN_PERIOD)
+    List<Item> searchItemsNotBookedAfter(@Param("text") String text,
+                                         @Param("start") LocalDateTime start,
+                                         @Param("end") LocalDateTime end,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+
+    @Query(value = "select i.* from items as i where i.is_available = true " +
+            "and (to_tsvector('simple', i.name || ' ' || i.description) @@ plainto_tsquery('simple', :text) " +
+            "or lower(i.name) like lower(concat('%', :text, '%')) " +
+            "or lower(i.description) like lower(concat('%', :text, '%'))) " +
+            "order by ts_rank(to_tsvector('simple', i.name || ' ' || i.description), " +
+            "plainto_tsquery('simple', :text)) desc, i.id",
+            countQuery = "select count(*) from items as i where i.is_available = true " +
+                    "and (to_tsvector('simple', i.name || ' ' || i.description) @@ plainto_tsquery('simple', :text) " +
+                    "or lower(i.name) like lower(concat('%', :text, '%')) " +
+                    "or lower(i.description) like lower(concat('%', :text, '%')))",
+            nativeQuery = true)
+    Page<Item> searchItemsByRank(@Param("text") String text, Pageable pageable);
+
+    @Query(value = "select i.* from items as i where i.is_available = true and i.id > :id " +
+            "and (to_tsvector('simple', i.name || ' ' || i.description) @@ plainto_tsquery('simple', :text) " +
+            "or lower(i.name) like lower(concat('%', :text, '%')) " +
+            "or lower(i.description) like lower(concat('%', :text, '%'))) " +
+            "order by i.id",
+            nativeQuery = true)
+    List<Item> searchItemsByRankAfter(@Param("text") String text, @Param("id") Long id, Pageable pageable);
+
+    @Query(value = "select i.* from items as i where i.is_available = true " +
+            "and (to_tsvector('simple', i.name || ' ' || i.description) @@ plainto_tsquery('simple', :text) " +
+            "or lower(i.name) like lower(concat('%', :text, '%')) " +
+            "or lower(i.description) like lower(concat('%', :text, '%'))) " + NOT_BOOKED_IN_PERIOD_NATIVE +
+            "order by ts_rank(to_tsvector('simple', i.name || ' ' || i.description), " +
+            "plainto_tsquery('simple', :text)) desc, i.id",
+            nativeQuery = true)
+    Slice<Item> searchItemsByRankNotBooked(@Param("text") String text,
+                                           @Param("start") LocalDateTime start,
+                                           @Param("end") LocalDateTime end,
+                                           Pageable pageable);
+
+    @Query(value = "select i.* from items as i where i.is_available = true and i.id > :id " +
+            "and (to_tsvector('simple', i.name || ' ' || i.description) @@ plainto_tsquery('simple', :text) " +
+            "or lower(i.name) like lower(concat('%', :text, '%')) " +
+            "or lower(i.description) like lower(concat('%', :text, '%'))) " + NOT_BOOKED_IN_PERIOD_NATIVE +
+            "order by i.id",
+            nativeQuery = true)
+    List<Item> searchItemsByRankNotBookedAfter(@Param("text") String text,
+                                               @Param("start") LocalDateTime start,
+                                               @Param("end") LocalDateTime end,
+                                               @Param("id") Long id,
+                                               Pageable pageable);
+
     List<Item> findItemsByItemRequestId(Long requestId);
+
+    List<Item> findItemsByItemRequestIdIn(Collection<Long> requestIds);
+
+    long countByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.storage;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemSearchStorage {
+
+    Page<Item> searchItems(String text, Pageable pageable);
+
+    List<Item> searchItemsAfter(String text, long id, int size);
+
+    Slice<Item> searchItemsNotBooked(String text, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    List<Item> searchItemsNotBookedAfter(String text, LocalDateTime start, LocalDateTime end, long id, int size);
+
+    void index(Item item);
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "like", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LikeItemSearchStorage implements ItemSearchStorage {
+
+    private final ItemRepository itemStorage;
+
+    @Override
+    public Page<Item> searchItems(String text, Pageable pageable) {
+        return itemStorage.searchItems(text, pageable);
+    }
+
+    @Override
+    public List<Item> searchItemsAfter(String text, long id, int size) {
+        return itemStorage.searchItemsAfter(text, id, PageRequest.of(0, size, Sort.by("id").ascending()));
+    }
+
+    @Override
+    public Slice<Item> searchItemsNotBooked(String text, LocalDateTime start, LocalDateTime end, Pageable pageable) {
+        return itemStorage.searchItemsNotBooked(text, start, end, pageable);
+    }
+
+    @Override
+    public List<Item> searchItemsNotBookedAfter(String text, LocalDateTime start, LocalDateTime end, long id,
+                                                int size) {
+        return itemStorage.searchItemsNotBookedAfter(text, start, end, id,
+                PageRequest.of(0, size, Sort.by("id").ascending()));
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.item.storage;
+
+import java.util.Arrays;
+
+public class PostingList {
+    private static final long[] EMPTY = new long[0];
+
+    private long[] ids = new long[4];
+    private int size;
+
+    public void add(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) return;
+        position = -position - 1;
+        if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        size++;
+    }
+
+    public void remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) return;
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long[] toArray() {
+        return size == 0 ? EMPTY : Arrays.copyOf(ids, size);
+    }
+
+    public long[] retainAll(long[] sortedIds) {
+        long[] result = new long[Math.min(sortedIds.length, size)];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < sortedIds.length && j < size) {
+            if (sortedIds[i] < ids[j]) {
+                i++;
+            } else if (sortedIds[i] > ids[j]) {
+                j++;
+            } else {
+                result[k++] = sortedIds[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, k);
+    }
+}
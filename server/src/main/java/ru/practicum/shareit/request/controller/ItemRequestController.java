@@ -2,7 +2,11 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.Util.CatalogVersion;
+import ru.practicum.shareit.Util.Cursor;
 import ru.practicum.shareit.Util.Util;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -16,6 +20,7 @@ import java.util.List;
 public class ItemRequestController {
 
     private final ItemRequestService itemRequestService;
+    private final CatalogVersion catalogVersion;
 
     @PostMapping
     public ItemRequestDto addItemRequest(@RequestBody ItemRequestDto itemRequestDto,
@@ -25,24 +30,41 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public List<ItemRequestDto> getItemRequests(@RequestHeader(Util.HEADER_USER_ID) Long userId) {
+    public List<ItemRequestDto> getItemRequests(@RequestHeader(Util.HEADER_USER_ID) Long userId,
+                                                WebRequest webRequest) {
         log.info("ItemRequestController => getItemRequests: userId={}", userId);
+        if (webRequest.checkNotModified(catalogVersion.requestsETag(userId))) return null;
         return itemRequestService.getItemRequests(userId);
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAllItemRequests(
+    public ResponseEntity<List<ItemRequestDto>> getAllItemRequests(
             @RequestHeader(Util.HEADER_USER_ID) Long userId,
             @RequestParam(value = "from", defaultValue = "0") int from,
-            @RequestParam(value = "size", defaultValue = "10") int size) {
-        log.info("ItemRequestController => getAllItemRequests: userId={}, from={}, size={}", userId, from, size);
-        return itemRequestService.getAllItemRequests(userId, from, size);
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "total", defaultValue = "false") boolean total,
+            WebRequest webRequest) {
+        log.info("ItemRequestController => getAllItemRequests: userId={}, from={}, size={}, cursor={}", userId, from,
+                size, cursor);
+        if (webRequest.checkNotModified(catalogVersion.requestsETag(userId))) return null;
+        ResponseEntity<List<ItemRequestDto>> response;
+        if (cursor == null) {
+            response = ResponseEntity.ok(itemRequestService.getAllItemRequests(userId, from, size));
+        } else {
+            response = Cursor.toResponse(itemRequestService.getAllItemRequestsAfter(userId, cursor, size), size,
+                    itemRequestDto -> Cursor.of(itemRequestDto.getCreated(), itemRequestDto.getId()));
+        }
+        if (!total) return response;
+        return Util.withTotalCount(response, itemRequestService.countAllItemRequests(userId));
     }
 
     @GetMapping("/{requestId}")
     public ItemRequestDto getItemRequest(@RequestHeader(Util.HEADER_USER_ID) Long userId,
-                                         @PathVariable(name = "requestId") Long requestId) {
+                                         @PathVariable(name = "requestId") Long requestId,
+                                         WebRequest webRequest) {
         log.info("ItemRequestController => getItemRequest: userId={}, requestId={}", userId, requestId);
+        if (webRequest.checkNotModified(catalogVersion.requestsETag(userId))) return null;
         return itemRequestService.getItemRequest(userId, requestId);
     }
 }
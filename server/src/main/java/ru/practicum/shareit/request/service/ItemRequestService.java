@@ -12,5 +12,9 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> getAllItemRequests(Long userId, int from, int size);
 
+    List<ItemRequestDto> getAllItemRequestsAfter(Long userId, String cursor, int size);
+
+    long countAllItemRequests(Long userId);
+
     ItemRequestDto getItemRequest(Long userId, Long requestId);
 }
@@ -4,9 +4,14 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.Util.CatalogVersion;
+import ru.practicum.shareit.Util.Cursor;
 import ru.practicum.shareit.Util.DateTimeService;
+import ru.practicum.shareit.Util.SingleFlight;
+import ru.practicum.shareit.exception.CursorNotValidException;
 import ru.practicum.shareit.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -14,9 +19,11 @@ import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.user.storage.UserCache;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,51 +31,62 @@ import java.util.stream.Collectors;
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository itemRequestStorage;
-    private final UserRepository userStorage;
+    private final UserCache userCache;
     private final DateTimeService dateTimeService;
     private final ItemRepository itemStorage;
+    private final CatalogVersion catalogVersion;
+    private final SingleFlight<String, List<ItemRequestDto>> allRequests = new SingleFlight<>();
 
     @Override
     public ItemRequestDto addItemRequest(ItemRequestDto itemRequestDto, Long userId) {
-        User user = userStorage.findById(userId)
+        User user = userCache.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("Пользователя с таким id не существует"));
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDto);
         itemRequest.setRequestor(user);
         itemRequest.setCreated(dateTimeService.now());
-        return ItemRequestMapper.toItemRequestDto(itemRequestStorage.save(itemRequest));
+        ItemRequest savedItemRequest = itemRequestStorage.save(itemRequest);
+        catalogVersion.bumpRequest(savedItemRequest.getId());
+        return ItemRequestMapper.toItemRequestDto(savedItemRequest);
     }
 
     @Override
     public List<ItemRequestDto> getItemRequests(Long userId) {
-        if (!userStorage.existsById(userId)) throw new UserNotFoundException("Пользователя с таким id не существует");
-        return itemRequestStorage.findItemRequestsByRequestorIdOrderByCreatedDesc(userId)
-                .stream().map(ItemRequestMapper::toItemRequestDto)
-                .peek(itemRequestDto ->
-                        itemRequestDto.setItems(
-                                itemStorage.findItemsByItemRequestId(itemRequestDto.getId()).stream()
-                                        .map(ItemMapper::toItemDtoForRequestDto).collect(Collectors.toList())
-                        )
-                ).collect(Collectors.toList());
+        if (!userCache.existsById(userId)) throw new UserNotFoundException("Пользователя с таким id не существует");
+        return attachItems(itemRequestStorage.findItemRequestsByRequestorIdOrderByCreatedDesc(userId));
     }
 
     @Override
     public List<ItemRequestDto> getAllItemRequests(Long userId, int from, int size) {
-        if (!userStorage.existsById(userId)) throw new UserNotFoundException("Пользователя с таким id не существует");
+        if (!userCache.existsById(userId)) throw new UserNotFoundException("Пользователя с таким id не существует");
         int page = from / size;
-        return itemRequestStorage.findItemRequestsByRequestorIdNot(userId,
-                PageRequest.of(page, size, Sort.by("created").descending()))
-                .stream().map(ItemRequestMapper::toItemRequestDto)
-                .peek(itemRequestDto ->
-                        itemRequestDto.setItems(
-                                itemStorage.findItemsByItemRequestId(itemRequestDto.getId()).stream()
-                                        .map(ItemMapper::toItemDtoForRequestDto).collect(Collectors.toList())
-                        )
-                ).collect(Collectors.toList());
+        // the listing excludes the caller's own requests, so only the same user's calls are coalesced
+        String key = catalogVersion.requestsETag(userId) + " " + from + " " + size;
+        return allRequests.execute(key, () -> List.copyOf(attachItems(itemRequestStorage
+                .findItemRequestsByRequestorIdNot(userId, PageRequest.of(page, size, Sort.by("created").descending()))
+                .getContent())));
+    }
+
+    @Override
+    public List<ItemRequestDto> getAllItemRequestsAfter(Long userId, String cursor, int size) {
+        if (!userCache.existsById(userId)) throw new UserNotFoundException("Пользователя с таким id не существует");
+        Cursor after = Cursor.decode(cursor);
+        if (after == null) {
+            return attachItems(itemRequestStorage.findItemRequestsByRequestorIdNotOrderByCreatedDescIdDesc(userId,
+                    PageRequest.of(0, size)));
+        }
+        if (after.getTime() == null) throw new CursorNotValidException("Некорректный курсор пагинации");
+        return attachItems(itemRequestStorage.findItemRequestsAfter(userId, after.getTime(), after.getId(),
+                PageRequest.of(0, size)));
+    }
+
+    @Override
+    public long countAllItemRequests(Long userId) {
+        return itemRequestStorage.countItemRequestsByRequestorIdNot(userId);
     }
 
     @Override
     public ItemRequestDto getItemRequest(Long userId, Long requestId) {
-        if (!userStorage.existsById(userId)) throw new UserNotFoundException("Пользователя с таким id не существует");
+        if (!userCache.existsById(userId)) throw new UserNotFoundException("Пользователя с таким id не существует");
         ItemRequest itemRequest = itemRequestStorage.findById(requestId)
                 .orElseThrow(() -> new ItemRequestNotFoundException("Запроса с таким id не существует"));
         ItemRequestDto itemRequestDto = ItemRequestMapper.toItemRequestDto(itemRequest);
@@ -78,4 +96,16 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return itemRequestDto;
     }
 
+    private List<ItemRequestDto> attachItems(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) return Collections.emptyList();
+        List<Long> requestIds = itemRequests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+        Map<Long, List<ItemDto>> items = itemStorage.findItemsByItemRequestIdIn(requestIds).stream()
+                .map(ItemMapper::toItemDtoForRequestDto)
+                .collect(Collectors.groupingBy(ItemDto::getRequestId));
+        return itemRequests.stream()
+                .map(ItemRequestMapper::toItemRequestDto)
+                .peek(itemRequestDto ->
+                        itemRequestDto.setItems(items.getOrDefault(itemRequestDto.getId(), Collections.emptyList()))
+                ).collect(Collectors.toList());
+    }
 }
@@ -1,15 +1,25 @@
 package ru.practicum.shareit.request.storage;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
     List<ItemRequest> findItemRequestsByRequestorIdOrderByCreatedDesc(Long userId);
 
-    Page<ItemRequest> findItemRequestsByRequestorIdNot(Long requestorId, Pageable pageable);
+    Slice<ItemRequest> findItemRequestsByRequestorIdNot(Long requestorId, Pageable pageable);
+
+    long countItemRequestsByRequestorIdNot(Long requestorId);
+
+    List<ItemRequest> findItemRequestsByRequestorIdNotOrderByCreatedDescIdDesc(Long requestorId, Pageable pageable);
+
+    @Query("select r from ItemRequest as r where r.requestor.id <> ?1 " +
+            "and (r.created < ?2 or (r.created = ?2 and r.id < ?3)) order by r.created desc, r.id desc")
+    List<ItemRequest> findItemRequestsAfter(Long requestorId, LocalDateTime created, Long id, Pageable pageable);
 }
@@ -3,13 +3,18 @@ package ru.practicum.shareit.user.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.Util.CatalogVersion;
+import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exception.UserEmailAlreadyExistException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.service.ItemCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserCache;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -19,6 +24,10 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userStorage;
+    private final UserCache userCache;
+    private final ItemCache itemCache;
+    private final BookingRepository bookingStorage;
+    private final CatalogVersion catalogVersion;
 
     @Override
     public List<UserDto> getAll() {
@@ -28,7 +37,9 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserDto add(UserDto userDto) {
         try {
-            return UserMapper.toUserDto(userStorage.save(UserMapper.toUser(userDto)));
+            User savedUser = userStorage.save(UserMapper.toUser(userDto));
+            userCache.evict(savedUser.getId());
+            return UserMapper.toUserDto(savedUser);
         } catch (DataIntegrityViolationException e) {
             throw new UserEmailAlreadyExistException("Пользователь с email: " + userDto.getEmail() + " уже существует");
         }
@@ -40,7 +51,15 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new UserNotFoundException("Пользователя с таким id не существует"));
         if (Objects.nonNull(userDto.getName())) userFromDb.setName(userDto.getName());
         if (Objects.nonNull(userDto.getEmail())) userFromDb.setEmail(userDto.getEmail());
-        return UserMapper.toUserDto(userStorage.save(userFromDb));
+        User savedUser = userStorage.save(userFromDb);
+        userCache.evict(savedUser.getId());
+        // cached items carry comment author names
+        if (Objects.nonNull(userDto.getName())) itemCache.evictAll();
+        // bookings carry booker names and emails, so the lists of the user and of the owners they booked from change
+        List<Long> userIds = new ArrayList<>(bookingStorage.findItemOwnerIdsByBookerId(savedUser.getId()));
+        userIds.add(savedUser.getId());
+        catalogVersion.bumpBookings(userIds);
+        return UserMapper.toUserDto(savedUser);
     }
 
     @Override
@@ -52,5 +71,9 @@ public class UserServiceImpl implements UserService {
     @Override
     public void delete(Long id) {
         userStorage.deleteById(id);
+        userCache.evict(id);
+        // the deleted user's cached lists must turn into 404s
+        catalogVersion.bumpBookings(List.of(id));
+        catalogVersion.bumpRequest(id);
     }
 }
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.user.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.Util.CacheInvalidationBus;
+import ru.practicum.shareit.Util.ExpiringCache;
+import ru.practicum.shareit.Util.Util;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.Optional;
+
+@Component
+public class UserCache {
+    private final UserRepository userStorage;
+    private final ExpiringCache<Long, Optional<User>> users;
+    private final CacheInvalidationBus invalidationBus;
+    private final BitSet knownIds = new BitSet();
+    private long version;
+
+    public UserCache(UserRepository userStorage,
+                     CacheInvalidationBus invalidationBus,
+                     @Value("${shareit.cache.user.size:100000}") int size,
+                     @Value("${shareit.cache.user.ttl-seconds:300}") long ttlSeconds) {
+        this.userStorage = userStorage;
+        this.users = new ExpiringCache<>(size, Duration.ofSeconds(ttlSeconds));
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(CacheInvalidationBus.USERS, this::invalidate);
+    }
+
+    public boolean existsById(Long userId) {
+        if (isKnown(userId)) return true;
+        return findById(userId).isPresent();
+    }
+
+    public Optional<User> findById(Long userId) {
+        Optional<User> user = users.getIfPresent(userId);
+        if (user == null) {
+            long loadVersion = currentVersion();
+            Optional<User> loaded = userStorage.findById(userId);
+            // a transaction that rolls back must not leave its own rows, or their absence, in the cache
+            Util.afterCommit(() -> remember(userId, loaded, loadVersion));
+            user = loaded;
+        }
+        return user.map(u -> User.builder()
+                .id(u.getId())
+                .name(u.getName())
+                .email(u.getEmail())
+                .build());
+    }
+
+    public void evict(Long userId) {
+        Util.afterCommit(() -> invalidationBus.publish(CacheInvalidationBus.USERS, userId));
+    }
+
+    private void invalidate(Long userId) {
+        synchronized (knownIds) {
+            if (userId == null) {
+                knownIds.clear();
+            } else if (fitsBitSet(userId)) {
+                knownIds.clear(userId.intValue());
+            }
+            version++;
+        }
+        if (userId == null) {
+            users.clear();
+        } else {
+            users.evict(userId);
+        }
+    }
+
+    private long currentVersion() {
+        synchronized (knownIds) {
+            return version;
+        }
+    }
+
+    private boolean isKnown(Long userId) {
+        if (!fitsBitSet(userId)) return false;
+        synchronized (knownIds) {
+            return knownIds.get(userId.intValue());
+        }
+    }
+
+    private void remember(Long userId, Optional<User> user, long loadVersion) {
+        synchronized (knownIds) {
+            // an eviction while loading may have made the user stale
+            if (version != loadVersion) return;
+            users.put(userId, user);
+            if (user.isPresent() && fitsBitSet(userId)) knownIds.set(userId.intValue());
+        }
+    }
+
+    private static boolean fitsBitSet(Long userId) {
+        return userId != null && userId >= 0 && userId < Integer.MAX_VALUE;
+    }
+}
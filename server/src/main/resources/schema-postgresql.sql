@@ -0,0 +1,49 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS ix_items_search_tsv ON items
+    USING GIN (to_tsvector('simple', name || ' ' || description)) WHERE is_available;
+
+CREATE INDEX IF NOT EXISTS ix_items_name_trgm ON items USING GIN (lower(name) gin_trgm_ops) WHERE is_available;
+
+CREATE INDEX IF NOT EXISTS ix_items_description_trgm ON items
+    USING GIN (lower(description) gin_trgm_ops) WHERE is_available;
+
+CREATE OR REPLACE FUNCTION sync_bookings_item_owner() RETURNS TRIGGER LANGUAGE plpgsql AS
+'BEGIN UPDATE bookings SET item_owner_id = NEW.owner_id WHERE item_id = NEW.id; RETURN NEW; END';
+
+DROP TRIGGER IF EXISTS tr_items_owner_changed ON items;
+
+CREATE TRIGGER tr_items_owner_changed AFTER UPDATE OF owner_id ON items
+    FOR EACH ROW WHEN (OLD.owner_id IS DISTINCT FROM NEW.owner_id) EXECUTE FUNCTION sync_bookings_item_owner();
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- exclusion constraints cannot be added NOT VALID, so bookings that already overlap are resolved first:
+-- per item, approved bookings win over waiting ones and older over newer, the losers become REJECTED
+DO
+'DECLARE
+    r RECORD;
+    rejected BIGINT := 0;
+    updated BIGINT;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''ex_bookings_item_period'') THEN
+        LOCK TABLE bookings IN SHARE ROW EXCLUSIVE MODE;
+        FOR r IN SELECT id, item_id, start_date, end_date FROM bookings
+                WHERE status NOT IN (''REJECTED'', ''CANCELED'')
+                ORDER BY item_id, status = ''APPROVED'' DESC, id LOOP
+            UPDATE bookings AS b SET status = ''REJECTED'', version = b.version + 1
+                WHERE b.item_id = r.item_id AND b.id <> r.id AND b.status NOT IN (''REJECTED'', ''CANCELED'')
+                  AND b.start_date < r.end_date AND r.start_date < b.end_date
+                  AND EXISTS (SELECT 1 FROM bookings AS k
+                              WHERE k.id = r.id AND k.status NOT IN (''REJECTED'', ''CANCELED''));
+            GET DIAGNOSTICS updated = ROW_COUNT;
+            rejected := rejected + updated;
+        END LOOP;
+        IF rejected > 0 THEN
+            RAISE WARNING ''ex_bookings_item_period: % overlapping bookings rejected'', rejected;
+        END IF;
+        ALTER TABLE bookings ADD CONSTRAINT ex_bookings_item_period EXCLUDE USING GIST
+            (item_id WITH =, tsrange(start_date, end_date, ''[)'') WITH &&)
+            WHERE (status NOT IN (''REJECTED'', ''CANCELED''));
+    END IF;
+END';
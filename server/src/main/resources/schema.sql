@@ -31,6 +31,8 @@ CREATE TABLE IF NOT EXISTS bookings (
     item_id BIGINT NOT NULL REFERENCES items (id),
     booker_id BIGINT NOT NULL REFERENCES users (id),
     status VARCHAR(255) NOT NULL,
+    item_owner_id BIGINT NOT NULL REFERENCES users (id),
+    version BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT pk_booking PRIMARY KEY (id)
 );
 
@@ -42,3 +44,36 @@ CREATE TABLE IF NOT EXISTS comments (
     created TIMESTAMP NOT NULL,
     CONSTRAINT pk_comment PRIMARY KEY (id)
 );
+
+CREATE TABLE IF NOT EXISTS catalog_versions (
+    name VARCHAR(64) NOT NULL,
+    version BIGINT NOT NULL,
+    CONSTRAINT pk_catalog_version PRIMARY KEY (name)
+);
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS item_owner_id BIGINT REFERENCES users (id);
+
+UPDATE bookings SET item_owner_id = (SELECT i.owner_id FROM items AS i WHERE i.id = bookings.item_id)
+WHERE item_owner_id IS NULL;
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS ix_items_owner_id ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS ix_items_request_id ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS ix_requests_requestor_created ON requests (requestor_id, created);
+
+CREATE INDEX IF NOT EXISTS ix_requests_created ON requests (created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_item_owner_start ON bookings (item_owner_id, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_item_end ON bookings (booker_id, item_id, end_date);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_start ON bookings (item_id, status, start_date);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_item_end_start ON bookings (item_id, end_date, start_date, status);
+
+CREATE INDEX IF NOT EXISTS ix_comments_item_created ON comments (item_id, created);
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.datajpa;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.Util.CacheInvalidationBus;
+import ru.practicum.shareit.Util.CatalogVersion;
+import ru.practicum.shareit.Util.LocalCacheInvalidationBus;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+// versions are bumped in their own transactions, as the services do
+@JdbcTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class CatalogVersionTest {
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Test
+    public void shouldGiveSameETagOnEveryReplicaTest() {
+        LocalCacheInvalidationBus bus = new LocalCacheInvalidationBus();
+        CatalogVersion replica = catalogVersion(bus);
+        CatalogVersion otherReplica = catalogVersion(bus);
+        String before = otherReplica.itemsETag();
+
+        replica.bumpItem(1L);
+
+        assertThat(otherReplica.itemsETag(), not(equalTo(before)));
+        assertThat(otherReplica.itemsETag(), equalTo(replica.itemsETag()));
+    }
+
+    @Test
+    public void shouldKeepETagAfterRestartTest() {
+        CatalogVersion catalogVersion = catalogVersion(new LocalCacheInvalidationBus());
+        catalogVersion.bumpItem(2L);
+        catalogVersion.bumpBookings(List.of(1L));
+
+        CatalogVersion restarted = catalogVersion(new LocalCacheInvalidationBus());
+
+        assertThat(restarted.itemsETag(), equalTo(catalogVersion.itemsETag()));
+        assertThat(restarted.bookingsETag(1L), equalTo(catalogVersion.bookingsETag(1L)));
+    }
+
+    @Test
+    public void shouldChangeETagOnWriteToAnyShardTest() {
+        CatalogVersion catalogVersion = catalogVersion(new LocalCacheInvalidationBus());
+        String before = catalogVersion.itemsETag();
+
+        catalogVersion.bumpItem(3L);
+        String afterFirst = catalogVersion.itemsETag();
+        catalogVersion.bumpItem(4L);
+
+        assertThat(afterFirst, not(equalTo(before)));
+        assertThat(catalogVersion.itemsETag(), not(equalTo(afterFirst)));
+    }
+
+    @Test
+    public void shouldChangeOnlyETagsOfTouchedScopeTest() {
+        CatalogVersion catalogVersion = catalogVersion(new LocalCacheInvalidationBus());
+        String itemsETag = catalogVersion.itemsETag();
+        String requestsETag = catalogVersion.requestsETag(5L);
+        String bookerETag = catalogVersion.bookingsETag(5L);
+        String otherUserETag = catalogVersion.bookingsETag(6L);
+
+        catalogVersion.bumpBookings(List.of(5L));
+
+        assertThat(catalogVersion.itemsETag(), equalTo(itemsETag));
+        assertThat(catalogVersion.requestsETag(5L), equalTo(requestsETag));
+        assertThat(catalogVersion.bookingsETag(5L), not(equalTo(bookerETag)));
+        assertThat(catalogVersion.bookingsETag(6L), equalTo(otherUserETag));
+    }
+
+    @Test
+    public void shouldReadVersionsAgainAfterInvalidationTest() {
+        LocalCacheInvalidationBus bus = new LocalCacheInvalidationBus();
+        CatalogVersion catalogVersion = catalogVersion(bus);
+        String before = catalogVersion.bookingsETag(7L);
+
+        jdbcTemplate.update("insert into catalog_versions (name, version) values ('bookings:7', 10)");
+        bus.receive(CacheInvalidationBus.CATALOG, null);
+
+        assertThat(catalogVersion.bookingsETag(7L), not(equalTo(before)));
+    }
+
+    private CatalogVersion catalogVersion(CacheInvalidationBus bus) {
+        return new CatalogVersion(jdbcTemplate, transactionManager, bus, 100, 60);
+    }
+}
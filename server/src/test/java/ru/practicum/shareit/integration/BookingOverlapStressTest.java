@@ -0,0 +1,165 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BookingOverlapException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@Testcontainers(disabledWithoutDocker = true)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class BookingOverlapStressTest {
+    private static final int BOOKERS = 32;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:13.7-alpine");
+
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.driverClassName", POSTGRES::getDriverClassName);
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.sql.init.platform", () -> "postgresql");
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> BOOKERS);
+    }
+
+    @Test
+    public void shouldNotDoubleBookUnderConcurrentRequests() throws Exception {
+        Long ownerId = userService.add(UserDto.builder().name("owner").email("owner@email.com").build()).getId();
+        Long itemId = itemService.addItem(ItemDto.builder()
+                .name("drill")
+                .description("drill")
+                .available(true)
+                .ownerId(ownerId)
+                .build()).getId();
+        List<Long> bookerIds = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            bookerIds.add(userService.add(UserDto.builder().name("booker" + i).email("booker" + i + "@email.com")
+                    .build()).getId());
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(BOOKERS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            // every interval overlaps its neighbours, so at most every other booking can succeed
+            BookingDto bookingDto = BookingDto.builder()
+                    .itemId(itemId)
+                    .bookerId(bookerIds.get(i))
+                    .start(start.plusHours(i))
+                    .end(start.plusHours(i + 2))
+                    .status(Status.WAITING)
+                    .build();
+            results.add(executor.submit(() -> {
+                go.await();
+                try {
+                    bookingService.addBooking(bookingDto);
+                    return true;
+                } catch (BookingOverlapException e) {
+                    return false;
+                }
+            }));
+        }
+        go.countDown();
+        int booked = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) booked++;
+        }
+        executor.shutdown();
+
+        Integer overlaps = jdbcTemplate.queryForObject("select count(*) from bookings as a join bookings as b " +
+                "on a.item_id = b.item_id and a.id < b.id and a.start_date < b.end_date and b.start_date < a.end_date " +
+                "where a.item_id = ?", Integer.class, itemId);
+        Integer stored = jdbcTemplate.queryForObject("select count(*) from bookings where item_id = ?",
+                Integer.class, itemId);
+
+        assertThat(overlaps, equalTo(0));
+        assertThat(stored, equalTo(booked));
+    }
+
+    @Test
+    public void shouldRejectExistingOverlapsWhenAddingConstraint() {
+        Long ownerId = userService.add(UserDto.builder().name("owner").email("legacy@email.com").build()).getId();
+        Long bookerId = userService.add(UserDto.builder().name("booker").email("legacy-booker@email.com").build())
+                .getId();
+        Long itemId = itemService.addItem(ItemDto.builder()
+                .name("saw")
+                .description("saw")
+                .available(true)
+                .ownerId(ownerId)
+                .build()).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        jdbcTemplate.execute("alter table bookings drop constraint ex_bookings_item_period");
+
+        Long earlierWaiting = insertBooking(itemId, bookerId, ownerId, start, start.plusHours(3), Status.WAITING);
+        Long approved = insertBooking(itemId, bookerId, ownerId, start.plusHours(2), start.plusHours(4),
+                Status.APPROVED);
+        Long laterWaiting = insertBooking(itemId, bookerId, ownerId, start.plusHours(3), start.plusHours(5),
+                Status.WAITING);
+        Long first = insertBooking(itemId, bookerId, ownerId, start.plusHours(6), start.plusHours(8), Status.WAITING);
+        Long second = insertBooking(itemId, bookerId, ownerId, start.plusHours(7), start.plusHours(9),
+                Status.WAITING);
+        Long third = insertBooking(itemId, bookerId, ownerId, start.plusHours(8), start.plusHours(10),
+                Status.WAITING);
+        new ResourceDatabasePopulator(new ClassPathResource("schema-postgresql.sql")).execute(dataSource);
+
+        assertThat(statusOf(earlierWaiting), equalTo(Status.REJECTED.name()));
+        assertThat(statusOf(approved), equalTo(Status.APPROVED.name()));
+        assertThat(statusOf(laterWaiting), equalTo(Status.REJECTED.name()));
+        // the third one overlapped only the second, which lost to the first
+        assertThat(statusOf(first), equalTo(Status.WAITING.name()));
+        assertThat(statusOf(second), equalTo(Status.REJECTED.name()));
+        assertThat(statusOf(third), equalTo(Status.WAITING.name()));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from pg_constraint " +
+                "where conname = 'ex_bookings_item_period'", Integer.class), equalTo(1));
+    }
+
+    private Long insertBooking(Long itemId, Long bookerId, Long ownerId, LocalDateTime start, LocalDateTime end,
+                               Status status) {
+        return jdbcTemplate.queryForObject("insert into bookings (start_date, end_date, item_id, booker_id, status, " +
+                "item_owner_id) values (?, ?, ?, ?, ?, ?) returning id", Long.class, start, end, itemId, bookerId,
+                status.name(), ownerId);
+    }
+
+    private String statusOf(Long bookingId) {
+        return jdbcTemplate.queryForObject("select status from bookings where id = ?", String.class, bookingId);
+    }
+}
@@ -21,6 +21,7 @@ import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -71,11 +72,12 @@ public class BookingServiceTest {
         TypedQuery<Item> queryItem = em.createQuery("select i from Item i where i.name = :name", Item.class);
         Item item = queryItem.setParameter("name", itemDto.getName()).getSingleResult();
 
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
         BookingDto bookingDto = BookingDto.builder()
                 .itemId(item.getId())
                 .bookerId(user2.getId())
-                .start(LocalDateTime.now().plusDays(1))
-                .end(LocalDateTime.now().plusDays(2))
+                .start(now.plusDays(1))
+                .end(now.plusDays(2))
                 .status(Status.WAITING)
                 .build();
 
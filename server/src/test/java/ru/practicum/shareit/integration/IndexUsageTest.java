@@ -0,0 +1,153 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.output.OutputFrame;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+// auto_explain logs the plan of every statement Hibernate sends, so the repository methods themselves are checked;
+// the planner keeps its default settings and chooses among all indexes on tables seeded to production-like sizes
+@Testcontainers(disabledWithoutDocker = true)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class IndexUsageTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:13.7-alpine")
+            .withCommand("postgres", "-c", "fsync=off",
+                    "-c", "shared_preload_libraries=auto_explain",
+                    "-c", "auto_explain.log_min_duration=0");
+    private static boolean seeded;
+
+    private final BookingRepository bookingStorage;
+    private final ItemRepository itemStorage;
+    private final CommentRepository commentStorage;
+    private final ItemRequestRepository itemRequestStorage;
+    private final JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.driverClassName", POSTGRES::getDriverClassName);
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.sql.init.platform", () -> "postgresql");
+    }
+
+    @BeforeEach
+    public void seed() {
+        if (seeded) return;
+        jdbcTemplate.execute("insert into users (name, email) " +
+                "select 'user' || g, 'user' || g || '@email.com' from generate_series(1, 10000) as g");
+        jdbcTemplate.execute("insert into requests (description, requestor_id, created) " +
+                "select 'request ' || g, g % 10000 + 1, timestamp '2020-01-01' + g * interval '1 hour' " +
+                "from generate_series(1, 20000) as g");
+        jdbcTemplate.execute("insert into items (name, description, is_available, owner_id, request_id) " +
+                "select 'item ' || g, 'description ' || g, g % 10 <> 0, g % 10000 + 1, " +
+                "case when g % 5 = 0 then g / 5 end from generate_series(1, 50000) as g");
+        // four consecutive, non-overlapping bookings per item
+        jdbcTemplate.execute("insert into bookings (start_date, end_date, item_id, booker_id, status, item_owner_id) " +
+                "select timestamp '2020-01-01' + g / 50000 * interval '3 days', " +
+                "timestamp '2020-01-02' + g / 50000 * interval '3 days', g % 50000 + 1, g % 10000 + 1, " +
+                "(array['WAITING', 'APPROVED', 'REJECTED', 'CANCELED'])[g % 4 + 1], (g % 50000 + 1) % 10000 + 1 " +
+                "from generate_series(0, 199999) as g");
+        jdbcTemplate.execute("insert into comments (text, item_id, author_id, created) " +
+                "select 'comment ' || g, g % 50000 + 1, g % 10000 + 1, " +
+                "timestamp '2020-01-01' + g * interval '1 minute' " +
+                "from generate_series(1, 100000) as g");
+        jdbcTemplate.execute("analyze");
+        seeded = true;
+    }
+
+    @Test
+    public void shouldUseIndexForBookerBookings() throws Exception {
+        assertUsesIndex(() -> bookingStorage.findBookingsByBookerIdAndStatus(1L, Status.WAITING,
+                PageRequest.of(0, 10, Sort.by("start").descending())), "ix_bookings_booker_start");
+    }
+
+    @Test
+    public void shouldUseIndexForOwnerBookings() throws Exception {
+        assertUsesIndex(() -> bookingStorage.findBookingsByItemOwnerIdAndEndBefore(1L, NOW,
+                PageRequest.of(0, 10, Sort.by("start").descending())), "ix_bookings_item_owner_start");
+    }
+
+    @Test
+    public void shouldUseIndexForLastAndNextBookings() throws Exception {
+        assertUsesIndex(() -> bookingStorage.findLastAndNextBookingsByItemIdIn(List.of(1L, 2L, 3L),
+                Status.REJECTED.name(), NOW), "ix_bookings_item_status_start");
+    }
+
+    @Test
+    public void shouldUseIndexForFinishedBookingCheck() throws Exception {
+        assertUsesIndex(() -> bookingStorage.existsBookingByBookerIdAndItemIdAndEndBefore(1L, 2L, NOW),
+                "ix_bookings_booker_item_end");
+    }
+
+    @Test
+    public void shouldUseIndexForBookedInPeriodCheck() throws Exception {
+        assertUsesIndex(() -> itemStorage.searchItemsNotBooked("item 4242", NOW, NOW.plusDays(2),
+                        PageRequest.of(0, 10)),
+                "ix_bookings_item_end_start");
+    }
+
+    @Test
+    public void shouldUseIndexForOwnerItems() throws Exception {
+        assertUsesIndex(() -> itemStorage.findItemsByOwnerId(1L, PageRequest.of(0, 10, Sort.by("id"))),
+                "ix_items_owner_id");
+    }
+
+    @Test
+    public void shouldUseIndexForRequestItems() throws Exception {
+        assertUsesIndex(() -> itemStorage.findItemsByItemRequestIdIn(List.of(1L, 2L, 3L)), "ix_items_request_id");
+    }
+
+    @Test
+    public void shouldUseIndexForItemComments() throws Exception {
+        assertUsesIndex(() -> commentStorage.findCommentsByItemIdInOrderByCreatedDesc(List.of(1L, 2L, 3L)),
+                "ix_comments_item_created");
+    }
+
+    @Test
+    public void shouldUseIndexForUserRequests() throws Exception {
+        assertUsesIndex(() -> itemRequestStorage.findItemRequestsByRequestorIdOrderByCreatedDesc(1L),
+                "ix_requests_requestor_created");
+    }
+
+    private void assertUsesIndex(Runnable repositoryCall, String index) throws InterruptedException {
+        // the word boundary keeps one index name from matching another that it is a prefix of
+        Pattern scan = Pattern.compile("(Index Scan|Index Only Scan) using " + index + "\\b" +
+                "|Bitmap Index Scan on " + index + "\\b");
+        int offset = POSTGRES.getLogs(OutputFrame.OutputType.STDERR).length();
+        repositoryCall.run();
+        // the container log is streamed asynchronously, so the plans may arrive a little later
+        String plans = "";
+        for (int attempt = 0; attempt < 50 && !scan.matcher(plans).find(); attempt++) {
+            Thread.sleep(100);
+            plans = POSTGRES.getLogs(OutputFrame.OutputType.STDERR).substring(offset);
+        }
+
+        assertThat("Планы запросов не используют индекс " + index + ":\n" + plans, scan.matcher(plans).find());
+    }
+}
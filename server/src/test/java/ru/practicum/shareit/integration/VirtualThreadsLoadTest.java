@@ -0,0 +1,114 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// requests block in real JDBC calls on a table lock held by the test, not in a sleep
+@Testcontainers(disabledWithoutDocker = true)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shareit.threads=virtual",
+        "server.tomcat.threads.max=" + VirtualThreadsLoadTest.PLATFORM_THREADS})
+public class VirtualThreadsLoadTest {
+    static final int PLATFORM_THREADS = 8;
+    private static final int REQUESTS = 32;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:13.7-alpine");
+
+    private final UserService userService;
+    @LocalServerPort
+    private int port;
+
+    @BeforeAll
+    public static void requireVirtualThreads() {
+        assumeTrue(Runtime.version().feature() >= 21, "Виртуальные потоки доступны начиная с JDK 21");
+    }
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.driverClassName", POSTGRES::getDriverClassName);
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.sql.init.platform", () -> "postgresql");
+        // the pool must not be the limit the test measures
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> REQUESTS);
+    }
+
+    @Test
+    public void shouldBlockInJdbcOnMoreRequestsThanTomcatThreads() throws Exception {
+        Long userId = userService.add(UserDto.builder().name("user").email("user@email.com").build()).getId();
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/" + userId))
+                .build();
+        client.send(request, HttpResponse.BodyHandlers.discarding());
+
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+        try (Connection lockHolder = connect(); Connection observer = connect()) {
+            lockHolder.setAutoCommit(false);
+            try (Statement statement = lockHolder.createStatement()) {
+                statement.execute("LOCK TABLE users IN ACCESS EXCLUSIVE MODE");
+            }
+            for (int i = 0; i < REQUESTS; i++) {
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+            }
+
+            // platform threads would stop at PLATFORM_THREADS queries, the rest would wait for a worker
+            assertThat(awaitQueriesWaitingForLock(observer, REQUESTS), equalTo((long) REQUESTS));
+            lockHolder.rollback();
+        }
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            assertThat(response.get(10, TimeUnit.SECONDS).statusCode(), equalTo(200));
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+
+    private static long awaitQueriesWaitingForLock(Connection connection, int expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        long waiting;
+        do {
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(
+                         "select count(*) from pg_stat_activity where wait_event_type = 'Lock'")) {
+                resultSet.next();
+                waiting = resultSet.getLong(1);
+            }
+            if (waiting >= expected) return waiting;
+            TimeUnit.MILLISECONDS.sleep(50);
+        } while (System.nanoTime() < deadline);
+        return waiting;
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.Util.LocalCacheInvalidationBus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.storage.AvailabilityIndex;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.exception.ItemNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityIndexTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Mock
+    private BookingRepository bookingStorage;
+    @Mock
+    private ItemRepository itemStorage;
+    private AvailabilityIndex availabilityIndex;
+
+    @BeforeEach
+    public void beforeEach() {
+        this.availabilityIndex = new AvailabilityIndex(bookingStorage, itemStorage, new LocalCacheInvalidationBus(),
+                100, 60);
+    }
+
+    @Test
+    public void shouldFindFreeAndBusyPeriodsTest() {
+        givenBookings(booking(10, 12), booking(14, 20), booking(15, 16));
+
+        assertTrue(availabilityIndex.isFree(1L, DAY.plusHours(8), DAY.plusHours(10)));
+        assertTrue(availabilityIndex.isFree(1L, DAY.plusHours(12), DAY.plusHours(14)));
+        assertTrue(availabilityIndex.isFree(1L, DAY.plusHours(20), DAY.plusHours(22)));
+        assertFalse(availabilityIndex.isFree(1L, DAY.plusHours(11), DAY.plusHours(13)));
+        assertFalse(availabilityIndex.isFree(1L, DAY.plusHours(17), DAY.plusHours(18)));
+        assertFalse(availabilityIndex.isFree(1L, DAY, DAY.plusDays(1)));
+        verify(bookingStorage, times(1)).findBookingsByItemIdAndStatusInOrderByStartAsc(eq(1L), anyCollection());
+    }
+
+    @Test
+    public void shouldReloadAfterEvictTest() {
+        givenBookings();
+        assertTrue(availabilityIndex.isFree(1L, DAY.plusHours(10), DAY.plusHours(12)));
+
+        givenBookings(booking(10, 12));
+        availabilityIndex.evict(1L);
+
+        assertFalse(availabilityIndex.isFree(1L, DAY.plusHours(10), DAY.plusHours(12)));
+    }
+
+    @Test
+    public void shouldNotFindUnknownItemTest() {
+        Mockito
+                .when(itemStorage.existsById(1L))
+                .thenReturn(false);
+
+        assertThrows(ItemNotFoundException.class,
+                () -> availabilityIndex.isFree(1L, DAY.plusHours(10), DAY.plusHours(12)));
+    }
+
+    @Test
+    public void shouldFilterFreeItemsWithOneQueryTest() {
+        Booking booking = booking(10, 12);
+        booking.setItem(Item.builder().id(2L).build());
+        Mockito
+                .when(itemStorage.countByIdIn(List.of(1L, 2L, 3L)))
+                .thenReturn(3L);
+        Mockito
+                .when(bookingStorage.findBookingsByItemIdInAndStatusInOrderByStartAsc(eq(List.of(1L, 2L, 3L)),
+                        anyCollection()))
+                .thenReturn(List.of(booking));
+
+        assertThat(availabilityIndex.filterFree(List.of(1L, 2L, 3L), DAY.plusHours(11), DAY.plusHours(13)),
+                equalTo(List.of(1L, 3L)));
+        assertThat(availabilityIndex.filterFree(List.of(2L, 3L), DAY.plusHours(12), DAY.plusHours(13)),
+                equalTo(List.of(2L, 3L)));
+        verify(bookingStorage, times(1)).findBookingsByItemIdInAndStatusInOrderByStartAsc(anyCollection(),
+                anyCollection());
+    }
+
+    @Test
+    public void shouldNotFilterUnknownItemsTest() {
+        Mockito
+                .when(itemStorage.countByIdIn(List.of(1L, 2L)))
+                .thenReturn(1L);
+
+        assertThrows(ItemNotFoundException.class,
+                () -> availabilityIndex.filterFree(List.of(1L, 2L), DAY.plusHours(10), DAY.plusHours(12)));
+        verify(bookingStorage, never()).findBookingsByItemIdInAndStatusInOrderByStartAsc(anyCollection(),
+                anyCollection());
+    }
+
+    private void givenBookings(Booking... bookings) {
+        Mockito
+                .when(itemStorage.existsById(1L))
+                .thenReturn(true);
+        Mockito
+                .when(bookingStorage.findBookingsByItemIdAndStatusInOrderByStartAsc(eq(1L), anyCollection()))
+                .thenReturn(List.of(bookings));
+    }
+
+    private static Booking booking(int startHour, int endHour) {
+        return Booking.builder()
+                .start(DAY.plusHours(startHour))
+                .end(DAY.plusHours(endHour))
+                .build();
+    }
+}
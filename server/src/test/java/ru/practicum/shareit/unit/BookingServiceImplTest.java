@@ -3,36 +3,52 @@ package ru.practicum.shareit.unit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import ru.practicum.shareit.Util.CatalogVersion;
 import ru.practicum.shareit.Util.DateTimeService;
+import ru.practicum.shareit.Util.StripedLocks;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.SendingBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.storage.AvailabilityIndex;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.user.storage.UserCache;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,11 +56,17 @@ public class BookingServiceImplTest {
     @Mock
     private BookingRepository bookingStorage;
     @Mock
-    private UserRepository userStorage;
+    private UserCache userCache;
     @Mock
     private ItemRepository itemStorage;
     @Mock
     private DateTimeService dateTimeService;
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+    @Spy
+    private StripedLocks itemLocks = new StripedLocks(true, 4);
+    @Mock
+    private CatalogVersion catalogVersion;
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -80,8 +102,8 @@ public class BookingServiceImplTest {
                 .id(1L)
                 .item(item)
                 .booker(user2)
-                .start(LocalDateTime.now().plusDays(1))
-                .end(LocalDateTime.now().plusDays(2))
+                .start(LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MICROS))
+                .end(LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.MICROS))
                 .status(Status.WAITING)
                 .build();
 
@@ -98,7 +120,7 @@ public class BookingServiceImplTest {
     @Test
     public void shouldAddBooking() {
         Mockito
-                .when(userStorage.findById(anyLong()))
+                .when(userCache.findById(anyLong()))
                 .thenReturn(Optional.of(user2));
         Mockito
                 .when(itemStorage.findById(anyLong()))
@@ -117,10 +139,28 @@ public class BookingServiceImplTest {
         assertThat(sendingBookingDto.getStatus(), equalTo(bookingDto.getStatus()));
     }
 
+    @Test
+    public void shouldAddBookingWithStoredPrecision() {
+        Mockito
+                .when(userCache.findById(anyLong()))
+                .thenReturn(Optional.of(user2));
+        Mockito
+                .when(itemStorage.findById(anyLong()))
+                .thenReturn(Optional.of(item));
+        Mockito
+                .when(bookingStorage.save(any(Booking.class)))
+                .then(returnsFirstArg());
+        bookingDto.setStart(bookingDto.getStart().plusNanos(123));
+
+        SendingBookingDto sendingBookingDto = bookingService.addBooking(this.bookingDto);
+
+        assertThat(sendingBookingDto.getStart(), equalTo(bookingDto.getStart().truncatedTo(ChronoUnit.MICROS)));
+    }
+
     @Test
     public void shouldNotAddBookingWhenUserNotFound() {
         Mockito
-                .when(userStorage.findById(anyLong()))
+                .when(userCache.findById(anyLong()))
                 .thenReturn(Optional.empty());
 
         UserNotFoundException e = assertThrows(
@@ -134,7 +174,7 @@ public class BookingServiceImplTest {
     @Test
     public void shouldNotAddBookingWhenItemNotFound() {
         Mockito
-                .when(userStorage.findById(anyLong()))
+                .when(userCache.findById(anyLong()))
                 .thenReturn(Optional.of(user2));
         Mockito
                 .when(itemStorage.findById(anyLong()))
@@ -151,7 +191,7 @@ public class BookingServiceImplTest {
     @Test
     public void shouldNotAddBookingWhenOwner() {
         Mockito
-                .when(userStorage.findById(anyLong()))
+                .when(userCache.findById(anyLong()))
                 .thenReturn(Optional.of(user));
 
         Mockito
@@ -169,7 +209,7 @@ public class BookingServiceImplTest {
     @Test
     public void shouldNotAddBookingWhenItemUnavailable() {
         Mockito
-                .when(userStorage.findById(anyLong()))
+                .when(userCache.findById(anyLong()))
                 .thenReturn(Optional.of(user2));
 
         item.setAvailable(false);
@@ -188,7 +228,7 @@ public class BookingServiceImplTest {
     @Test
     public void shouldNotAddBookingWhenEndBeforeStart() {
         Mockito
-                .when(userStorage.findById(anyLong()))
+                .when(userCache.findById(anyLong()))
                 .thenReturn(Optional.of(user2));
         Mockito
                 .when(itemStorage.findById(anyLong()))
@@ -203,6 +243,27 @@ public class BookingServiceImplTest {
         assertThat(e.getMessage(), equalTo("Дата начала бронирования не может быть позже даты его окончания"));
     }
 
+    @Test
+    public void shouldNotAddBookingWhenPeriodOverlaps() {
+        Mockito
+                .when(userCache.findById(anyLong()))
+                .thenReturn(Optional.of(user2));
+        Mockito
+                .when(itemStorage.findById(anyLong()))
+                .thenReturn(Optional.of(item));
+        Mockito
+                .when(bookingStorage.save(any(Booking.class)))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+
+        BookingOverlapException e = assertThrows(
+                BookingOverlapException.class,
+                () -> bookingService.addBooking(bookingDto)
+        );
+
+        assertThat(e.getMessage(), equalTo("Вещь уже забронирована на пересекающийся период"));
+    }
+
     @Test
     public void shouldApproveBooking() {
         Mockito
@@ -220,6 +281,46 @@ public class BookingServiceImplTest {
         assertThat(newBookingDto.getItem().getId(), equalTo(booking.getItem().getId()));
         assertThat(newBookingDto.getBooker().getId(), equalTo(booking.getBooker().getId()));
         assertThat(newBookingDto.getStatus(), equalTo(Status.APPROVED));
+        verify(catalogVersion).bumpBookings(List.of(user2.getId(), user.getId()));
+    }
+
+    @Test
+    public void shouldRetryApproveAfterConcurrentModification() {
+        Mockito
+                .when(bookingStorage.findById(anyLong()))
+                .thenReturn(Optional.of(copyOf(booking)), Optional.of(copyOf(booking)), Optional.of(copyOf(booking)));
+        Mockito
+                .when(bookingStorage.save(any(Booking.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, 1L))
+                .then(returnsFirstArg());
+
+        SendingBookingDto newBookingDto = bookingService.approveBooking(1L, 1L, true);
+
+        assertThat(newBookingDto.getStatus(), equalTo(Status.APPROVED));
+        InOrder inOrder = inOrder(bookingStorage, itemLocks);
+        inOrder.verify(bookingStorage).findById(1L);
+        inOrder.verify(itemLocks).withLock(eq(item.getId()), any());
+        inOrder.verify(bookingStorage, times(2)).findById(1L);
+        verify(bookingStorage, times(2)).save(any(Booking.class));
+    }
+
+    @Test
+    public void shouldNotApproveBookingWhenModifiedOnEveryAttempt() {
+        Mockito
+                .when(bookingStorage.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.of(copyOf(booking)));
+        Mockito
+                .when(bookingStorage.save(any(Booking.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, 1L));
+
+        BookingConflictException e = assertThrows(
+                BookingConflictException.class,
+                () -> bookingService.approveBooking(1L, 1L, true)
+        );
+
+        assertThat(e.getMessage(), equalTo("Бронирование изменено другим запросом, повторите попытку"));
+        verify(bookingStorage, times(4)).findById(1L);
+        verify(bookingStorage, times(3)).save(any(Booking.class));
     }
 
     @Test
@@ -285,10 +386,126 @@ public class BookingServiceImplTest {
         assertThat(e.getMessage(), equalTo("Бронирование уже подтверждено"));
     }
 
+    @Test
+    public void shouldApproveBookingsInBulk() {
+        Booking approved = Booking.builder()
+                .id(2L)
+                .item(item)
+                .booker(user2)
+                .status(Status.APPROVED)
+                .build();
+        Mockito
+                .when(userCache.existsById(anyLong()))
+                .thenReturn(true);
+        Mockito
+                .when(bookingStorage.findBookingsByIdInAndItemOwnerId(List.of(1L, 2L, 3L), 1L))
+                .thenReturn(List.of(booking, approved));
+        Mockito
+                .when(bookingStorage.updateStatusOfNotApprovedBooking(1L, Status.APPROVED))
+                .thenReturn(1);
+
+        List<BookingApprovalResultDto> results = bookingService.approveBookings(1L, List.of(1L, 2L, 3L, 1L), true);
+
+        assertThat(results.size(), equalTo(3));
+        assertThat(results.get(0).getStatus(), equalTo(Status.APPROVED));
+        assertThat(results.get(1).getError(), equalTo("Бронирование уже подтверждено"));
+        assertThat(results.get(2).getError(), equalTo("Бронирования с таким id не существует"));
+        verify(itemLocks).withLocks(eq(List.of(item.getId())), any());
+        verify(availabilityIndex).evict(item.getId());
+        verify(catalogVersion).bumpBookings(List.of(user2.getId(), user.getId()));
+        verify(bookingStorage, never()).save(any(Booking.class));
+    }
+
+    @Test
+    public void shouldApproveOtherBookingsWhenOneApprovedConcurrently() {
+        Booking other = copyOf(booking);
+        other.setId(2L);
+        Mockito
+                .when(userCache.existsById(anyLong()))
+                .thenReturn(true);
+        Mockito
+                .when(bookingStorage.findBookingsByIdInAndItemOwnerId(anyCollection(), anyLong()))
+                .thenReturn(List.of(booking, other));
+        Mockito
+                .when(bookingStorage.updateStatusOfNotApprovedBooking(1L, Status.APPROVED))
+                .thenReturn(0);
+        Mockito
+                .when(bookingStorage.updateStatusOfNotApprovedBooking(2L, Status.APPROVED))
+                .thenReturn(1);
+
+        List<BookingApprovalResultDto> results = bookingService.approveBookings(1L, List.of(1L, 2L), true);
+
+        assertThat(results.get(0).getError(), equalTo("Бронирование изменено другим запросом, повторите попытку"));
+        assertThat(results.get(0).getStatus(), nullValue());
+        assertThat(results.get(1).getStatus(), equalTo(Status.APPROVED));
+        verify(availabilityIndex).evict(item.getId());
+        verify(catalogVersion).bumpBookings(List.of(user2.getId(), user.getId()));
+    }
+
+    @Test
+    public void shouldApproveOtherBookingsWhenOnePeriodOverlaps() {
+        booking.setStatus(Status.REJECTED);
+        Booking other = copyOf(booking);
+        other.setId(2L);
+        Mockito
+                .when(userCache.existsById(anyLong()))
+                .thenReturn(true);
+        Mockito
+                .when(bookingStorage.findBookingsByIdInAndItemOwnerId(anyCollection(), anyLong()))
+                .thenReturn(List.of(booking, other));
+        Mockito
+                .when(bookingStorage.updateStatusOfNotApprovedBooking(1L, Status.APPROVED))
+                .thenReturn(1);
+        Mockito
+                .when(bookingStorage.updateStatusOfNotApprovedBooking(2L, Status.APPROVED))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+
+        List<BookingApprovalResultDto> results = bookingService.approveBookings(1L, List.of(1L, 2L), true);
+
+        assertThat(results.get(0).getStatus(), equalTo(Status.APPROVED));
+        assertThat(results.get(1).getError(), equalTo("Вещь уже забронирована на пересекающийся период"));
+        verify(bookingStorage).updateStatusOfNotApprovedBooking(2L, Status.APPROVED);
+    }
+
+    @Test
+    public void shouldNotEvictWhenNoBookingApproved() {
+        Mockito
+                .when(userCache.existsById(anyLong()))
+                .thenReturn(true);
+        Mockito
+                .when(bookingStorage.findBookingsByIdInAndItemOwnerId(anyCollection(), anyLong()))
+                .thenReturn(List.of(booking));
+        Mockito
+                .when(bookingStorage.updateStatusOfNotApprovedBooking(anyLong(), any(Status.class)))
+                .thenReturn(0);
+
+        List<BookingApprovalResultDto> results = bookingService.approveBookings(1L, List.of(1L), true);
+
+        assertThat(results.get(0).getError(), equalTo("Бронирование изменено другим запросом, повторите попытку"));
+        verify(availabilityIndex, never()).evict(anyLong());
+        verify(catalogVersion, never()).bumpBookings(anyCollection());
+    }
+
+    @Test
+    public void shouldNotApproveBookingsWhenUserNotFound() {
+        Mockito
+                .when(userCache.existsById(anyLong()))
+                .thenReturn(false);
+
+        UserNotFoundException e = assertThrows(
+                UserNotFoundException.class,
+                () -> bookingService.approveBookings(1L, List.of(1L), true)
+        );
+
+        assertThat(e.getMessage(), equalTo("Пользователя с таким id не существует"));
+        verify(bookingStorage, never()).findBookingsByIdInAndItemOwnerId(anyCollection(), anyLong());
+    }
+
     @Test
     public void shouldGetById() {
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(true);
         Mockito
                 .when(bookingStorage.findById(anyLong()))
@@ -307,7 +524,7 @@ public class BookingServiceImplTest {
     @Test
     public void shouldNotGetByIdWhenUserNotFound() {
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(false);
 
         UserNotFoundException e = assertThrows(
@@ -322,7 +539,7 @@ public class BookingServiceImplTest {
     @Test
     public void shouldNotGetByIdWhenBookingNotFound() {
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(true);
         Mockito
                 .when(bookingStorage.findById(anyLong()))
@@ -339,7 +556,7 @@ public class BookingServiceImplTest {
     @Test
     public void shouldNotGetByIdWhenUserNotOwnerOrBooker() {
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(true);
         Mockito
                 .when(bookingStorage.findById(anyLong()))
@@ -359,11 +576,11 @@ public class BookingServiceImplTest {
                 .when(dateTimeService.now())
                 .thenReturn(LocalDateTime.now());
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(true);
         Mockito
                 .when(bookingStorage.findBookingsByBookerId(anyLong(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .thenReturn(new PageImpl<>(List.of(BookingMapper.toExtendedBookingDto(booking))));
 
         List<SendingBookingDto> bookings = bookingService.getListOfBookingsUserItemsOrUserBookings(2L, "ALL",
                 0, 5, false);
@@ -384,12 +601,12 @@ public class BookingServiceImplTest {
                 .when(dateTimeService.now())
                 .thenReturn(LocalDateTime.now());
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(true);
         Mockito
                 .when(bookingStorage.findBookingsByBookerIdAndStartBeforeAndEndAfter(anyLong(), any(LocalDateTime.class),
                         any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .thenReturn(new PageImpl<>(List.of(BookingMapper.toExtendedBookingDto(booking))));
 
         List<SendingBookingDto> bookings = bookingService.getListOfBookingsUserItemsOrUserBookings(2L, "CURRENT",
                 0, 5, false);
@@ -410,12 +627,12 @@ public class BookingServiceImplTest {
                 .when(dateTimeService.now())
                 .thenReturn(LocalDateTime.now());
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(true);
         Mockito
                 .when(bookingStorage.findBookingsByBookerIdAndEndBefore(anyLong(), any(LocalDateTime.class),
                         any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .thenReturn(new PageImpl<>(List.of(BookingMapper.toExtendedBookingDto(booking))));
 
         List<SendingBookingDto> bookings = bookingService.getListOfBookingsUserItemsOrUserBookings(2L, "PAST",
                 0, 5, false);
@@ -436,12 +653,12 @@ public class BookingServiceImplTest {
                 .when(dateTimeService.now())
                 .thenReturn(LocalDateTime.now());
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(true);
         Mockito
                 .when(bookingStorage.findBookingsByBookerIdAndStartAfter(anyLong(), any(LocalDateTime.class),
                         any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .thenReturn(new PageImpl<>(List.of(BookingMapper.toExtendedBookingDto(booking))));
 
         List<SendingBookingDto> bookings = bookingService.getListOfBookingsUserItemsOrUserBookings(2L, "FUTURE",
                 0, 5, false);
@@ -462,12 +679,12 @@ public class BookingServiceImplTest {
                 .when(dateTimeService.now())
                 .thenReturn(LocalDateTime.now());
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(true);
         Mockito
                 .when(bookingStorage.findBookingsByBookerIdAndStatus(anyLong(), any(Status.class),
                         any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .thenReturn(new PageImpl<>(List.of(BookingMapper.toExtendedBookingDto(booking))));
 
         List<SendingBookingDto> bookings = bookingService.getListOfBookingsUserItemsOrUserBookings(2L, "WAITING",
                 0, 5, false);
@@ -488,12 +705,12 @@ public class BookingServiceImplTest {
                 .when(dateTimeService.now())
                 .thenReturn(LocalDateTime.now());
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(true);
         Mockito
                 .when(bookingStorage.findBookingsByBookerIdAndStatus(anyLong(), any(Status.class),
                         any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .thenReturn(new PageImpl<>(List.of(BookingMapper.toExtendedBookingDto(booking))));
 
         List<SendingBookingDto> bookings = bookingService.getListOfBookingsUserItemsOrUserBookings(2L, "REJECTED",
                 0, 5, false);
@@ -514,11 +731,11 @@ public class BookingServiceImplTest {
                 .when(dateTimeService.now())
                 .thenReturn(LocalDateTime.now());
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(true);
         Mockito
                 .when(bookingStorage.findBookingsByItemOwnerId(anyLong(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .thenReturn(new PageImpl<>(List.of(BookingMapper.toExtendedBookingDto(booking))));
 
         List<SendingBookingDto> bookings = bookingService.getListOfBookingsUserItemsOrUserBookings(1L, "ALL",
                 0, 5, true);
@@ -539,12 +756,12 @@ public class BookingServiceImplTest {
                 .when(dateTimeService.now())
                 .thenReturn(LocalDateTime.now());
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(true);
         Mockito
                 .when(bookingStorage.findBookingsByItemOwnerIdAndStartBeforeAndEndAfter(anyLong(),
                         any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .thenReturn(new PageImpl<>(List.of(BookingMapper.toExtendedBookingDto(booking))));
 
         List<SendingBookingDto> bookings = bookingService.getListOfBookingsUserItemsOrUserBookings(1L,
                 "CURRENT", 0, 5, true);
@@ -565,12 +782,12 @@ public class BookingServiceImplTest {
                 .when(dateTimeService.now())
                 .thenReturn(LocalDateTime.now());
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(true);
         Mockito
                 .when(bookingStorage.findBookingsByItemOwnerIdAndEndBefore(anyLong(), any(LocalDateTime.class),
                         any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .thenReturn(new PageImpl<>(List.of(BookingMapper.toExtendedBookingDto(booking))));
 
         List<SendingBookingDto> bookings = bookingService.getListOfBookingsUserItemsOrUserBookings(1L,
                 "PAST", 0, 5, true);
@@ -591,12 +808,12 @@ public class BookingServiceImplTest {
                 .when(dateTimeService.now())
                 .thenReturn(LocalDateTime.now());
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(true);
         Mockito
                 .when(bookingStorage.findBookingsByItemOwnerIdAndStartAfter(anyLong(), any(LocalDateTime.class),
                         any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .thenReturn(new PageImpl<>(List.of(BookingMapper.toExtendedBookingDto(booking))));
 
         List<SendingBookingDto> bookings = bookingService.getListOfBookingsUserItemsOrUserBookings(1L,
                 "FUTURE", 0, 5, true);
@@ -617,12 +834,12 @@ public class BookingServiceImplTest {
                 .when(dateTimeService.now())
                 .thenReturn(LocalDateTime.now());
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(true);
         Mockito
                 .when(bookingStorage.findBookingsByItemOwnerIdAndStatus(anyLong(), any(Status.class),
                         any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .thenReturn(new PageImpl<>(List.of(BookingMapper.toExtendedBookingDto(booking))));
 
         List<SendingBookingDto> bookings = bookingService.getListOfBookingsUserItemsOrUserBookings(1L,
                 "WAITING", 0, 5, true);
@@ -643,12 +860,12 @@ public class BookingServiceImplTest {
                 .when(dateTimeService.now())
                 .thenReturn(LocalDateTime.now());
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(true);
         Mockito
                 .when(bookingStorage.findBookingsByItemOwnerIdAndStatus(anyLong(), any(Status.class),
                         any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .thenReturn(new PageImpl<>(List.of(BookingMapper.toExtendedBookingDto(booking))));
 
         List<SendingBookingDto> bookings = bookingService.getListOfBookingsUserItemsOrUserBookings(1L,
                 "REJECTED", 0, 5, true);
@@ -666,7 +883,7 @@ public class BookingServiceImplTest {
     @Test
     public void shouldNotGetListOfBookingsUserItemsOrUserBookingsWhenUserNotFound() {
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(false);
 
         UserNotFoundException e = assertThrows(
@@ -677,4 +894,16 @@ public class BookingServiceImplTest {
 
         assertThat(e.getMessage(), equalTo("Пользователя с таким id не существует"));
     }
+
+    private static Booking copyOf(Booking booking) {
+        return Booking.builder()
+                .id(booking.getId())
+                .item(booking.getItem())
+                .booker(booking.getBooker())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(booking.getStatus())
+                .version(booking.getVersion())
+                .build();
+    }
 }
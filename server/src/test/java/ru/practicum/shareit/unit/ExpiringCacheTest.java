@@ -0,0 +1,102 @@
+package ru.practicum.shareit.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.Util.ExpiringCache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class ExpiringCacheTest {
+    private AtomicLong now;
+    private AtomicInteger loads;
+    private ExpiringCache<Long, String> cache;
+
+    @BeforeEach
+    public void beforeEach() {
+        this.now = new AtomicLong();
+        this.loads = new AtomicInteger();
+        this.cache = new ExpiringCache<>(2, Duration.ofSeconds(10), now::get);
+    }
+
+    @Test
+    public void shouldLoadOnceWhileNotExpiredTest() {
+        cache.get(1L, this::load);
+        now.addAndGet(Duration.ofSeconds(9).toNanos());
+        cache.get(1L, this::load);
+
+        assertThat(loads.get(), equalTo(1));
+    }
+
+    @Test
+    public void shouldReloadAfterTtlTest() {
+        cache.get(1L, this::load);
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        cache.get(1L, this::load);
+
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    public void shouldDropLeastRecentlyUsedWhenFullTest() {
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+        cache.get(1L, this::load);
+        cache.get(3L, this::load);
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+
+        assertThat(cache.size(), equalTo(2));
+        assertThat(loads.get(), equalTo(4));
+    }
+
+    @Test
+    public void shouldReloadAfterEvictTest() {
+        cache.get(1L, this::load);
+        cache.evict(1L);
+        cache.get(1L, this::load);
+
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    public void shouldNotStoreValueLoadedDuringEvictTest() {
+        cache.get(1L, id -> {
+            cache.evict(id);
+            return load(id);
+        });
+        cache.get(1L, this::load);
+
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    public void shouldLoadAllMissingKeysAtOnceTest() {
+        cache.get(1L, this::load);
+        AtomicInteger batches = new AtomicInteger();
+
+        Map<Long, String> values = cache.getAll(List.of(1L, 2L), ids -> {
+            batches.incrementAndGet();
+            return ids.stream().collect(Collectors.toMap(Function.identity(), this::load));
+        });
+
+        assertThat(values, equalTo(Map.of(1L, "value1", 2L, "value2")));
+        assertThat(batches.get(), equalTo(1));
+        assertThat(loads.get(), equalTo(2));
+        cache.get(2L, this::load);
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    private String load(Long id) {
+        loads.incrementAndGet();
+        return "value" + id;
+    }
+}
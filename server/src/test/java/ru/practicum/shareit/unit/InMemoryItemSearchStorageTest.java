@@ -0,0 +1,200 @@
+package ru.practicum.shareit.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.Util.CacheInvalidationBus;
+import ru.practicum.shareit.Util.LocalCacheInvalidationBus;
+import ru.practicum.shareit.booking.storage.AvailabilityIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.InMemoryItemSearchStorage;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchStorageTest {
+    @Mock
+    private ItemRepository itemStorage;
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+    private InMemoryItemSearchStorage searchStorage;
+    private LocalCacheInvalidationBus invalidationBus;
+    private User user;
+
+    @BeforeEach
+    public void beforeEach() {
+        this.user = User.builder()
+                .id(1L)
+                .name("name")
+                .email("email")
+                .build();
+        Mockito
+                .when(itemStorage.findAll(ArgumentMatchers.any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(
+                        item(1L, "Electric drill", "drill with charger", true),
+                        item(2L, "Hammer", "heavy hammer", true),
+                        item(3L, "Cordless Drill", "drill in a suitcase", false),
+                        item(4L, "Screwdriver", "a drill bit set is included", true)
+                )));
+        this.invalidationBus = new LocalCacheInvalidationBus();
+        this.searchStorage = new InMemoryItemSearchStorage(itemStorage, availabilityIndex, invalidationBus);
+        searchStorage.load();
+    }
+
+    @Test
+    public void shouldFindAvailableItemsBySubstringOrderedById() {
+        assertThat(search("DRILL", 0, 10), equalTo(List.of(1L, 4L)));
+        assertThat(search("mmer", 0, 10), equalTo(List.of(2L)));
+        assertThat(search("saw", 0, 10), equalTo(List.of()));
+    }
+
+    @Test
+    public void shouldMatchIgnoringCaseAndKeepDisplayNames() {
+        List<Item> items = searchStorage.searchItems("cHaRgEr", PageRequest.of(0, 10)).getContent();
+
+        assertThat(items.size(), equalTo(1));
+        assertThat(items.get(0).getName(), equalTo("Electric drill"));
+        assertThat(items.get(0).getDescription(), equalTo("drill with charger"));
+    }
+
+    @Test
+    public void shouldFindByShortText() {
+        assertThat(search("ha", 0, 10), equalTo(List.of(1L, 2L)));
+    }
+
+    @Test
+    public void shouldPageResults() {
+        Page<Item> page = searchStorage.searchItems("e", PageRequest.of(1, 2));
+
+        assertThat(page.getTotalElements(), equalTo(3L));
+        assertThat(page.getContent().size(), equalTo(1));
+        assertThat(page.getContent().get(0).getId(), equalTo(4L));
+    }
+
+    @Test
+    public void shouldReindexUpdatedItem() {
+        searchStorage.index(item(2L, "Sledgehammer", "drill proof", true));
+        searchStorage.index(item(4L, "Screwdriver", "a bit set is included", false));
+        searchStorage.index(item(3L, "Cordless Drill", "drill in a suitcase", true));
+
+        assertThat(search("drill", 0, 10), equalTo(List.of(1L, 2L, 3L)));
+        assertThat(search("heavy", 0, 10), equalTo(List.of()));
+        assertThat(search("sledge", 0, 10), equalTo(List.of(2L)));
+    }
+
+    @Test
+    public void shouldReindexItemsChangedOnAnotherReplica() {
+        Mockito
+                .when(itemStorage.findById(2L))
+                .thenReturn(Optional.of(item(2L, "Hammer drill", "heavy hammer", true)));
+        Mockito
+                .when(itemStorage.findById(4L))
+                .thenReturn(Optional.empty());
+
+        invalidationBus.receive(CacheInvalidationBus.ITEMS, 2L);
+        invalidationBus.receive(CacheInvalidationBus.ITEMS, 4L);
+
+        assertThat(search("drill", 0, 10), equalTo(List.of(1L, 2L)));
+        assertThat(search("screw", 0, 10), equalTo(List.of()));
+    }
+
+    @Test
+    public void shouldNotReloadOnLocalEvictions() {
+        searchStorage.index(item(2L, "Hammer drill", "heavy hammer", true));
+
+        invalidationBus.publish(CacheInvalidationBus.ITEMS, 2L);
+        invalidationBus.publish(CacheInvalidationBus.ITEMS, null);
+
+        assertThat(search("drill", 0, 10), equalTo(List.of(1L, 2L, 4L)));
+        Mockito.verify(itemStorage, Mockito.never()).findById(ArgumentMatchers.anyLong());
+        Mockito.verify(itemStorage, Mockito.times(1)).findAll(ArgumentMatchers.any(Pageable.class));
+    }
+
+    @Test
+    public void shouldServeOldIndexWhileReloading() {
+        Mockito
+                .when(itemStorage.findAll(ArgumentMatchers.any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    assertThat(search("drill", 0, 10), equalTo(List.of(1L, 4L)));
+                    // written while the pages are read, so the page below misses it
+                    searchStorage.index(item(2L, "Hammer drill", "heavy hammer", true));
+                    return new PageImpl<>(List.of(
+                            item(1L, "Electric drill", "drill with charger", true),
+                            item(2L, "Hammer", "heavy hammer", true)
+                    ));
+                });
+
+        invalidationBus.receive(CacheInvalidationBus.ITEMS, null);
+
+        assertThat(search("drill", 0, 10), equalTo(List.of(1L, 2L)));
+    }
+
+    @Test
+    public void shouldSkipItemsBookedInPeriodBeforePaging() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 5, 0, 0);
+        LocalDateTime end = start.plusDays(2);
+        Mockito
+                .when(availabilityIndex.filterFree(ArgumentMatchers.anyList(), ArgumentMatchers.eq(start),
+                        ArgumentMatchers.eq(end)))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).stream()
+                        .filter(id -> id != 1L)
+                        .collect(Collectors.toList()));
+
+        Slice<Item> slice = searchStorage.searchItemsNotBooked("drill", start, end, PageRequest.of(0, 1));
+
+        assertThat(slice.getContent().size(), equalTo(1));
+        assertThat(slice.getContent().get(0).getId(), equalTo(4L));
+        assertThat(slice.hasNext(), equalTo(false));
+        assertThat(searchStorage.searchItemsNotBookedAfter("drill", start, end, 0L, 10).stream()
+                .map(Item::getId).collect(Collectors.toList()), equalTo(List.of(4L)));
+    }
+
+    @Test
+    public void shouldCheckAvailabilityInOneBatchPerPage() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 5, 0, 0);
+        LocalDateTime end = start.plusDays(2);
+        Mockito
+                .when(availabilityIndex.filterFree(ArgumentMatchers.anyList(), ArgumentMatchers.eq(start),
+                        ArgumentMatchers.eq(end)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        Slice<Item> slice = searchStorage.searchItemsNotBooked("e", start, end, PageRequest.of(0, 1));
+
+        assertThat(slice.getContent().get(0).getId(), equalTo(1L));
+        assertThat(slice.hasNext(), equalTo(true));
+        Mockito.verify(availabilityIndex, Mockito.times(1)).filterFree(ArgumentMatchers.eq(List.of(1L, 2L, 4L)),
+                ArgumentMatchers.eq(start), ArgumentMatchers.eq(end));
+    }
+
+    private List<Long> search(String text, int page, int size) {
+        return searchStorage.searchItems(text, PageRequest.of(page, size)).stream()
+                .map(Item::getId).collect(Collectors.toList());
+    }
+
+    private Item item(Long id, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(user)
+                .build();
+    }
+}
@@ -10,6 +10,7 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.Util.CatalogVersion;
 import ru.practicum.shareit.Util.DateTimeService;
 import ru.practicum.shareit.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
@@ -19,7 +20,7 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.user.storage.UserCache;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -37,11 +38,13 @@ class ItemRequestServiceImplTest {
     @Mock
     private ItemRequestRepository itemRequestStorage;
     @Mock
-    private UserRepository userStorage;
+    private UserCache userCache;
     @Mock
     private ItemRepository itemStorage;
     @Mock
     private DateTimeService dateTimeService;
+    @Mock
+    private CatalogVersion catalogVersion;
     @InjectMocks
     private ItemRequestServiceImpl itemRequestService;
 
@@ -75,7 +78,7 @@ class ItemRequestServiceImplTest {
     @Test
     public void shouldAddItemRequest() {
         Mockito
-                .when(userStorage.findById(anyLong()))
+                .when(userCache.findById(anyLong()))
                 .thenReturn(Optional.of(user));
         Mockito
                 .when(dateTimeService.now())
@@ -93,7 +96,7 @@ class ItemRequestServiceImplTest {
     @Test
     public void shouldNotAddItemRequestWhenUserNotFound() {
         Mockito
-                .when(userStorage.findById(anyLong()))
+                .when(userCache.findById(anyLong()))
                 .thenReturn(Optional.empty());
 
         UserNotFoundException e = assertThrows(
@@ -107,13 +110,13 @@ class ItemRequestServiceImplTest {
     @Test
     public void shouldGetItemRequests() {
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(true);
         Mockito
                 .when(itemRequestStorage.findItemRequestsByRequestorIdOrderByCreatedDesc(anyLong()))
                 .thenReturn(List.of(itemRequest));
         Mockito
-                .when(itemStorage.findItemsByItemRequestId(anyLong()))
+                .when(itemStorage.findItemsByItemRequestIdIn(List.of(itemRequest.getId())))
                 .thenReturn(Collections.emptyList());
 
         List<ItemRequestDto> itemRequests = itemRequestService.getItemRequests(1L);
@@ -128,7 +131,7 @@ class ItemRequestServiceImplTest {
     @Test
     public void shouldNotGetItemRequestsByUserIdWhenUserNotFound() {
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(false);
 
         UserNotFoundException e = assertThrows(
@@ -142,13 +145,13 @@ class ItemRequestServiceImplTest {
     @Test
     public void shouldGetAllItemRequests() {
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(true);
         Mockito
                 .when(itemRequestStorage.findItemRequestsByRequestorIdNot(anyLong(), ArgumentMatchers.any(Pageable.class)))
                 .thenReturn(new PageImpl<>(List.of(itemRequest)));
         Mockito
-                .when(itemStorage.findItemsByItemRequestId(anyLong()))
+                .when(itemStorage.findItemsByItemRequestIdIn(List.of(itemRequest.getId())))
                 .thenReturn(Collections.emptyList());
 
         List<ItemRequestDto> itemRequests = itemRequestService.getAllItemRequests(1L, 0, 5);
@@ -163,7 +166,7 @@ class ItemRequestServiceImplTest {
     @Test
     public void shouldNotGetAllItemRequestsWhenUserNotFound() {
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(false);
 
         UserNotFoundException e = assertThrows(
@@ -177,7 +180,7 @@ class ItemRequestServiceImplTest {
     @Test
     public void shouldGetItemRequest() {
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(true);
         Mockito
                 .when(itemRequestStorage.findById(anyLong()))
@@ -196,7 +199,7 @@ class ItemRequestServiceImplTest {
     @Test
     public void shouldNotGetItemRequestWhenUserNotFound() {
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(false);
 
         UserNotFoundException e = assertThrows(
@@ -210,7 +213,7 @@ class ItemRequestServiceImplTest {
     @Test
     public void shouldNotGetItemRequestWhenItemRequestNotFound() {
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(true);
         Mockito
                 .when(itemRequestStorage.findById(anyLong()))
@@ -7,28 +7,35 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.Util.CatalogVersion;
 import ru.practicum.shareit.Util.DateTimeService;
+import ru.practicum.shareit.Util.LocalCacheInvalidationBus;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.storage.AvailabilityIndex;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemCache;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.item.storage.CommentRepository;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemSearchStorage;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.user.storage.UserCache;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -40,6 +47,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,7 +56,9 @@ class ItemServiceImplTest {
     @Mock
     private ItemRepository itemStorage;
     @Mock
-    private UserRepository userStorage;
+    private ItemSearchStorage itemSearchStorage;
+    @Mock
+    private UserCache userCache;
     @Mock
     private BookingRepository bookingStorage;
     @Mock
@@ -57,6 +67,12 @@ class ItemServiceImplTest {
     private ItemRequestRepository itemRequestStorage;
     @Mock
     private DateTimeService dateTimeService;
+    @Mock
+    private CatalogVersion catalogVersion;
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+    @Spy
+    private ItemCache itemCache = new ItemCache(new LocalCacheInvalidationBus(), 100, 60);
     @InjectMocks
     private ItemServiceImpl itemServiceImpl;
     private Item item;
@@ -122,7 +138,7 @@ class ItemServiceImplTest {
                 .thenReturn(LocalDateTime.of(2023, 11, 11, 13, 30));
         comment.setCreated(dateTimeService.now());
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(true);
         Mockito
                 .when(itemStorage.findById(anyLong()))
@@ -148,7 +164,7 @@ class ItemServiceImplTest {
                 .thenReturn(LocalDateTime.of(2023, 11, 11, 13, 30));
         comment.setCreated(dateTimeService.now());
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(true);
         Mockito
                 .when(itemStorage.findById(anyLong()))
@@ -177,10 +193,56 @@ class ItemServiceImplTest {
         assertThat(itemDto.getNextBooking(), equalTo(BookingMapper.toBookingDto(booking2)));
     }
 
+    @Test
+    void shouldGetItemByIdFromCacheTest() {
+        Mockito
+                .when(userCache.existsById(anyLong()))
+                .thenReturn(true);
+        Mockito
+                .when(itemStorage.findById(anyLong()))
+                .thenReturn(Optional.of(item));
+        Mockito
+                .when(commentStorage.findCommentsByItemIdOrderByCreatedDesc(anyLong()))
+                .thenReturn(List.of(comment));
+
+        itemServiceImpl.getItemById(1L, user2.getId());
+        ItemDto itemDto = itemServiceImpl.getItemById(1L, user2.getId());
+
+        assertThat(itemDto.getName(), equalTo(item.getName()));
+        assertThat(itemDto.getComments().size(), equalTo(1));
+        verify(itemStorage, times(1)).findById(1L);
+        verify(commentStorage, times(1)).findCommentsByItemIdOrderByCreatedDesc(1L);
+    }
+
+    @Test
+    void shouldReloadItemByIdAfterUpdateTest() {
+        Mockito
+                .when(userCache.existsById(anyLong()))
+                .thenReturn(true);
+        Mockito
+                .when(itemStorage.findById(anyLong()))
+                .thenReturn(Optional.of(item));
+        Mockito
+                .when(commentStorage.findCommentsByItemIdOrderByCreatedDesc(anyLong()))
+                .thenReturn(List.of(comment));
+        Mockito
+                .when(itemStorage.save(ArgumentMatchers.any(Item.class)))
+                .then(returnsFirstArg());
+
+        itemServiceImpl.getItemById(1L, user2.getId());
+        ItemDto update = ItemMapper.toItemDto(item, null);
+        update.setName("newName");
+        itemServiceImpl.updateItem(update);
+        ItemDto itemDto = itemServiceImpl.getItemById(1L, user2.getId());
+
+        assertThat(itemDto.getName(), equalTo("newName"));
+        verify(commentStorage, times(2)).findCommentsByItemIdOrderByCreatedDesc(1L);
+    }
+
     @Test
     void shouldNotGetItemByIdWhenUserNotFoundTest() {
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(false);
 
         UserNotFoundException e = assertThrows(
@@ -195,7 +257,7 @@ class ItemServiceImplTest {
     @Test
     void shouldNotGetItemByIdWhenItemNotFoundTest() {
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(true);
         Mockito
                 .when(itemStorage.findById(anyLong()))
@@ -216,27 +278,20 @@ class ItemServiceImplTest {
                 .thenReturn(LocalDateTime.of(2023, 11, 11, 13, 30));
         comment.setCreated(dateTimeService.now());
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(true);
         Mockito
                 .when(itemStorage.findItemsByOwnerId(anyLong(), ArgumentMatchers.any(Pageable.class)))
                 .thenReturn(new PageImpl<>(List.of(item)));
         Mockito
-                .when(bookingStorage.findTopBookingByItemIdAndStatusNotAndStartBeforeOrderByEndDesc(
-                        anyLong(),
-                        ArgumentMatchers.any(Status.class),
-                        ArgumentMatchers.any(LocalDateTime.class)
+                .when(bookingStorage.findLastAndNextBookingsByItemIdIn(
+                        List.of(item.getId()),
+                        Status.REJECTED.name(),
+                        dateTimeService.now()
                 ))
-                .thenReturn(booking);
-        Mockito
-                .when(bookingStorage.findTopBookingByItemIdAndStatusNotAndStartAfterOrderByStartAsc(
-                        anyLong(),
-                        ArgumentMatchers.any(Status.class),
-                        ArgumentMatchers.any(LocalDateTime.class)
-                ))
-                .thenReturn(booking2);
+                .thenReturn(List.of(booking, booking2));
         Mockito
-                .when(commentStorage.findCommentsByItemIdOrderByCreatedDesc(anyLong()))
+                .when(commentStorage.findCommentsByItemIdInOrderByCreatedDesc(List.of(item.getId())))
                 .thenReturn(List.of(comment));
 
         List<ItemDto> items = itemServiceImpl.getItems(1L, 0, 10);
@@ -256,7 +311,7 @@ class ItemServiceImplTest {
     @Test
     void shouldNotGetItemsWhenUserNotFoundTest() {
         Mockito
-                .when(userStorage.existsById(anyLong()))
+                .when(userCache.existsById(anyLong()))
                 .thenReturn(false);
 
         UserNotFoundException e = assertThrows(
@@ -275,7 +330,7 @@ class ItemServiceImplTest {
                 .thenReturn(LocalDateTime.of(2023, 11, 11, 13, 30));
         itemRequest.setCreated(dateTimeService.now());
         Mockito
-                .when(userStorage.findById(anyLong()))
+                .when(userCache.findById(anyLong()))
                 .thenReturn(Optional.of(user));
         Mockito
                 .when(itemStorage.save(ArgumentMatchers.any(Item.class)))
@@ -300,7 +355,7 @@ class ItemServiceImplTest {
                 .thenReturn(LocalDateTime.of(2023, 11, 11, 13, 30));
         itemRequest.setCreated(dateTimeService.now());
         Mockito
-                .when(userStorage.findById(anyLong()))
+                .when(userCache.findById(anyLong()))
                 .thenReturn(Optional.of(user));
         Mockito
                 .when(itemRequestStorage.findById(anyLong()))
@@ -340,7 +395,7 @@ class ItemServiceImplTest {
                 .thenReturn(LocalDateTime.of(2023, 11, 11, 13, 30));
         itemRequest.setCreated(dateTimeService.now());
         Mockito
-                .when(userStorage.findById(anyLong()))
+                .when(userCache.findById(anyLong()))
                 .thenReturn(Optional.of(user));
         Mockito
                 .when(itemRequestStorage.findById(anyLong()))
@@ -414,7 +469,7 @@ class ItemServiceImplTest {
     @Test
     public void shouldSearchItemsTest() {
         Mockito
-                .when(itemStorage.searchItems(ArgumentMatchers.any(String.class), ArgumentMatchers.any(Pageable.class)))
+                .when(itemSearchStorage.searchItems(ArgumentMatchers.any(String.class), ArgumentMatchers.any(Pageable.class)))
                 .thenReturn(new PageImpl<>(List.of(item)));
 
         List<ItemDto> items = itemServiceImpl.searchItems("Test", 0, 5);
@@ -436,13 +491,38 @@ class ItemServiceImplTest {
         assertTrue(items.isEmpty());
     }
 
+    @Test
+    public void shouldSearchItemsNotBookedInPeriodTest() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 5, 0, 0);
+        LocalDateTime end = start.plusDays(2);
+        Mockito
+                .when(itemSearchStorage.searchItemsNotBooked(ArgumentMatchers.eq("Test"), ArgumentMatchers.eq(start),
+                        ArgumentMatchers.eq(end), ArgumentMatchers.any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(item)));
+
+        List<ItemDto> items = itemServiceImpl.searchItems("Test", start, end, 0, 5);
+
+        assertThat(items.size(), equalTo(1));
+        assertThat(items.get(0).getId(), equalTo(item.getId()));
+    }
+
+    @Test
+    public void shouldNotSearchItemsWithHalfOpenPeriodTest() {
+        DateNotValidException e = assertThrows(
+                DateNotValidException.class,
+                () -> itemServiceImpl.searchItems("Test", LocalDateTime.of(2030, 1, 5, 0, 0), null, 0, 5)
+        );
+
+        assertThat(e.getMessage(), equalTo("Период должен содержать дату начала и дату окончания"));
+    }
+
     @Test
     public void shouldAddCommentTest() {
         Mockito
                 .when(dateTimeService.now())
                 .thenReturn(LocalDateTime.of(2023, 11, 11, 13, 30));
         Mockito
-                .when(userStorage.findById(anyLong()))
+                .when(userCache.findById(anyLong()))
                 .thenReturn(Optional.of(user));
         Mockito
                 .when(itemStorage.findById(anyLong()))
@@ -467,7 +547,7 @@ class ItemServiceImplTest {
     @Test
     public void shouldNotAddCommentWhenUserNotFoundTest() {
         Mockito
-                .when(userStorage.findById(anyLong()))
+                .when(userCache.findById(anyLong()))
                 .thenReturn(Optional.empty());
 
         UserNotFoundException e = assertThrows(
@@ -481,7 +561,7 @@ class ItemServiceImplTest {
     @Test
     public void shouldNotAddCommentWhenItemNotFoundTest() {
         Mockito
-                .when(userStorage.findById(anyLong()))
+                .when(userCache.findById(anyLong()))
                 .thenReturn(Optional.of(user));
         Mockito
                 .when(itemStorage.findById(anyLong()))
@@ -501,7 +581,7 @@ class ItemServiceImplTest {
                 .when(dateTimeService.now())
                 .thenReturn(LocalDateTime.of(2023, 12, 11, 13, 30));
         Mockito
-                .when(userStorage.findById(anyLong()))
+                .when(userCache.findById(anyLong()))
                 .thenReturn(Optional.of(user));
         Mockito
                 .when(itemStorage.findById(anyLong()))
@@ -519,4 +599,40 @@ class ItemServiceImplTest {
         assertThat(e.getMessage(), equalTo("Отзыв может оставить только арендатор вещи после завершения аренды"));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldGetAvailabilityTest() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = start.plusHours(2);
+        Mockito
+                .when(userCache.existsById(anyLong()))
+                .thenReturn(true);
+        Mockito
+                .when(availabilityIndex.filterFree(List.of(1L, 2L), start, end))
+                .thenReturn(List.of(1L));
+
+        List<ItemAvailabilityDto> availability = itemServiceImpl.getAvailability(1L, List.of(1L, 2L, 1L), start, end);
+
+        assertThat(availability.size(), equalTo(2));
+        assertThat(availability.get(0).getFree(), equalTo(true));
+        assertThat(availability.get(1).getFree(), equalTo(false));
+        verify(availabilityIndex, times(1)).filterFree(List.of(1L, 2L), start, end);
+        verify(availabilityIndex, never()).isFree(anyLong(), ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void shouldNotGetAvailabilityWhenEndBeforeStartTest() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        Mockito
+                .when(userCache.existsById(anyLong()))
+                .thenReturn(true);
+
+        DateNotValidException e = assertThrows(
+                DateNotValidException.class,
+                () -> itemServiceImpl.getAvailability(1L, 1L, start, start.minusHours(1))
+        );
+
+        assertThat(e.getMessage(), equalTo("Дата начала периода должна быть раньше даты его окончания"));
+        verify(availabilityIndex, never()).filterFree(ArgumentMatchers.anyList(), ArgumentMatchers.any(),
+                ArgumentMatchers.any());
+    }
+}
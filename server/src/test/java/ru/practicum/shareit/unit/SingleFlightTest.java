@@ -0,0 +1,92 @@
+package ru.practicum.shareit.unit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.Util.SingleFlight;
+import ru.practicum.shareit.exception.ItemNotFoundException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+    private SingleFlight<Long, String> singleFlight;
+    private AtomicInteger loads;
+    private CountDownLatch started;
+    private CountDownLatch release;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void beforeEach() {
+        this.singleFlight = new SingleFlight<>();
+        this.loads = new AtomicInteger();
+        this.started = new CountDownLatch(1);
+        this.release = new CountDownLatch(1);
+        this.executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldShareInFlightLoadTest() throws Exception {
+        Future<String> leader = executor.submit(() -> singleFlight.execute(1L, this::blockingLoad));
+        started.await(5, TimeUnit.SECONDS);
+        Future<String> follower = executor.submit(() -> singleFlight.execute(1L, this::blockingLoad));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS), equalTo("value1"));
+        assertThat(follower.get(5, TimeUnit.SECONDS), equalTo("value1"));
+        assertThat(loads.get(), equalTo(1));
+    }
+
+    @Test
+    public void shouldLoadAgainAfterFlightCompletedTest() {
+        release.countDown();
+        singleFlight.execute(1L, this::blockingLoad);
+        singleFlight.execute(1L, this::blockingLoad);
+
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    public void shouldNotJoinForgottenFlightTest() throws Exception {
+        Future<String> leader = executor.submit(() -> singleFlight.execute(1L, this::blockingLoad));
+        started.await(5, TimeUnit.SECONDS);
+        singleFlight.forget(1L);
+        Future<String> next = executor.submit(() -> singleFlight.execute(1L, this::blockingLoad));
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS), equalTo("value1"));
+        assertThat(next.get(5, TimeUnit.SECONDS), equalTo("value2"));
+    }
+
+    @Test
+    public void shouldPropagateLoaderExceptionTest() {
+        assertThrows(ItemNotFoundException.class, () -> singleFlight.execute(1L, () -> {
+            throw new ItemNotFoundException("Вещи с таким id не существует");
+        }));
+    }
+
+    private String blockingLoad() {
+        int load = loads.incrementAndGet();
+        started.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "value" + load;
+    }
+}
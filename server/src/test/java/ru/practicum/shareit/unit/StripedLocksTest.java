@@ -0,0 +1,64 @@
+package ru.practicum.shareit.unit;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.Util.StripedLocks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class StripedLocksTest {
+
+    @Test
+    public void shouldSerializeActionsForSameKeyTest() throws Exception {
+        StripedLocks locks = new StripedLocks(true, 4);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            results.add(executor.submit(() -> locks.withLock(42L, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.yield();
+                return running.decrementAndGet();
+            })));
+        }
+        for (Future<Integer> result : results) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(maxRunning.get(), equalTo(1));
+    }
+
+    @Test
+    public void shouldNotDeadlockWhenLockingKeySetsInDifferentOrderTest() throws Exception {
+        StripedLocks locks = new StripedLocks(true, 4);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            results.add(executor.submit(() -> locks.withLocks(List.of(1L, 2L, 3L), () -> 1)));
+            results.add(executor.submit(() -> locks.withLocks(List.of(3L, 2L, 1L), () -> 1)));
+        }
+        for (Future<Integer> result : results) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(results.size(), equalTo(2000));
+    }
+
+    @Test
+    public void shouldRunActionWithoutLockingWhenDisabledTest() {
+        StripedLocks locks = new StripedLocks(false, 4);
+
+        assertThat(locks.withLock(42L, () -> 1), equalTo(1));
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.Util.LocalCacheInvalidationBus;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserCache;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheTest {
+    @Mock
+    private UserRepository userStorage;
+    private UserCache userCache;
+    private User user;
+
+    @BeforeEach
+    public void beforeEach() {
+        this.userCache = new UserCache(userStorage, new LocalCacheInvalidationBus(), 100, 60);
+        this.user = User.builder()
+                .id(1L)
+                .name("name")
+                .email("email")
+                .build();
+    }
+
+    @Test
+    public void shouldLoadUserOnceTest() {
+        Mockito
+                .when(userStorage.findById(1L))
+                .thenReturn(Optional.of(user));
+
+        assertTrue(userCache.existsById(1L));
+        assertTrue(userCache.existsById(1L));
+        assertThat(userCache.findById(1L).orElseThrow().getName(), equalTo(user.getName()));
+        verify(userStorage, times(1)).findById(1L);
+    }
+
+    @Test
+    public void shouldCacheUnknownUserTest() {
+        Mockito
+                .when(userStorage.findById(2L))
+                .thenReturn(Optional.empty());
+
+        assertFalse(userCache.existsById(2L));
+        assertFalse(userCache.existsById(2L));
+        verify(userStorage, times(1)).findById(2L);
+    }
+
+    @Test
+    public void shouldReloadUserAfterEvictTest() {
+        Mockito
+                .when(userStorage.findById(1L))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(user));
+
+        assertFalse(userCache.existsById(1L));
+        userCache.evict(1L);
+        assertTrue(userCache.existsById(1L));
+    }
+
+    @Test
+    public void shouldNotCacheUsersReadInRolledBackTransactionTest() {
+        Mockito
+                .when(userStorage.findById(1L))
+                .thenReturn(Optional.of(user))
+                .thenReturn(Optional.empty());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(userCache.existsById(1L));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(userCache.existsById(1L));
+    }
+
+    @Test
+    public void shouldCacheUsersReadInCommittedTransactionTest() {
+        Mockito
+                .when(userStorage.findById(2L))
+                .thenReturn(Optional.empty());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertFalse(userCache.existsById(2L));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(userCache.existsById(2L));
+        verify(userStorage, times(1)).findById(2L);
+    }
+
+    @Test
+    public void shouldNotShareCachedInstanceTest() {
+        Mockito
+                .when(userStorage.findById(1L))
+                .thenReturn(Optional.of(user));
+
+        userCache.findById(1L).orElseThrow().setName("changed");
+
+        assertThat(userCache.findById(1L).orElseThrow().getName(), equalTo("name"));
+    }
+}
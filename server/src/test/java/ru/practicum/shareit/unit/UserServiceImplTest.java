@@ -8,11 +8,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.Util.CatalogVersion;
+import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.service.ItemCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.user.storage.UserCache;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.util.List;
@@ -29,6 +33,14 @@ class UserServiceImplTest {
 
     @Mock
     private UserRepository userStorage;
+    @Mock
+    private UserCache userCache;
+    @Mock
+    private ItemCache itemCache;
+    @Mock
+    private CatalogVersion catalogVersion;
+    @Mock
+    private BookingRepository bookingStorage;
 
     @InjectMocks
     private UserServiceImpl userService;
@@ -70,6 +82,7 @@ class UserServiceImplTest {
         assertThat(user.getName(), equalTo(userDto.getName()));
         assertThat(user.getEmail(), equalTo(userDto.getEmail()));
         verify(userStorage, times(1)).save(user);
+        verify(userCache, times(1)).evict(user.getId());
     }
 
     @Test
@@ -93,6 +106,8 @@ class UserServiceImplTest {
         assertThat(newUser.getEmail(), equalTo(updatedUserDto.getEmail()));
         verify(userStorage, times(1)).save(user);
         verify(userStorage, times(1)).findById(anyLong());
+        verify(itemCache, times(1)).evictAll();
+        verify(catalogVersion, times(1)).bumpBookings(List.of(1L));
     }
 
     @Test
@@ -190,5 +205,6 @@ class UserServiceImplTest {
         userService.delete(1L);
 
         verify(userStorage, times(1)).deleteById(1L);
+        verify(userCache, times(1)).evict(1L);
     }
 }
\ No newline at end of file
@@ -10,7 +10,9 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.Util.CatalogVersion;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.SendingBookingDto;
 import ru.practicum.shareit.booking.model.Status;
@@ -26,6 +28,7 @@ import java.util.List;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -34,6 +37,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 public class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
+    @MockBean
+    private CatalogVersion catalogVersion;
     private final ObjectMapper mapper;
     private final MockMvc mvc;
 
@@ -96,6 +101,28 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.booker.id").value(sendingBookingDto.getBooker().getId()));
     }
 
+    @Test
+    public void shouldApproveBookingsInBulk() throws Exception {
+        Mockito
+                .when(bookingService.approveBookings(anyLong(), anyList(), anyBoolean()))
+                .thenReturn(List.of(
+                        BookingApprovalResultDto.builder().bookingId(1L).status(Status.APPROVED).build(),
+                        BookingApprovalResultDto.builder().bookingId(2L).error("Бронирование уже подтверждено").build()));
+
+        mvc.perform(patch("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("approved", String.valueOf(true))
+                        .content(mapper.writeValueAsString(List.of(1L, 2L)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookingId").value(1L))
+                .andExpect(jsonPath("$[0].status").value(Status.APPROVED.toString()))
+                .andExpect(jsonPath("$[1].bookingId").value(2L))
+                .andExpect(jsonPath("$[1].error").value("Бронирование уже подтверждено"));
+    }
+
     @Test
     public void shouldApproveBooking() throws Exception {
         Mockito
@@ -156,6 +183,42 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.[0].booker.id").value(sendingBookingDto.getBooker().getId()));
     }
 
+    @Test
+    public void shouldNotGetBookingWhenNotModified() throws Exception {
+        Mockito
+                .when(catalogVersion.bookingsETag(anyLong()))
+                .thenReturn("\"v1\"");
+
+        mvc.perform(get("/bookings/1")
+                        .header("X-Sharer-User-Id", 1)
+                        .header("If-None-Match", "\"v1\"")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"v1\""));
+
+        Mockito.verify(bookingService, Mockito.never()).getBooking(anyLong(), anyLong());
+    }
+
+    @Test
+    public void shouldGetCurrentBookingsEvenWhenVersionNotChanged() throws Exception {
+        Mockito
+                .when(bookingService.getListOfBookingsUserItemsOrUserBookings(anyLong(), anyString(), anyInt(),
+                        anyInt(), anyBoolean()))
+                .thenReturn(List.of(sendingBookingDto));
+
+        mvc.perform(get("/bookings")
+                        .param("state", "CURRENT")
+                        .header("X-Sharer-User-Id", 1)
+                        .header("If-None-Match", "\"v1\"")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(1));
+
+        Mockito.verify(catalogVersion, Mockito.never()).bookingsETag(anyLong());
+    }
+
     @Test
     public void shouldGetListOfBookingsUserItems() throws Exception {
         Mockito
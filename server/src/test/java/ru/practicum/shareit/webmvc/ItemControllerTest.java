@@ -11,8 +11,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.Util.Cursor;
+import ru.practicum.shareit.Util.CatalogVersion;
 import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
@@ -24,6 +27,7 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -32,6 +36,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 public class ItemControllerTest {
     @MockBean
     private ItemService itemService;
+    @MockBean
+    private CatalogVersion catalogVersion;
     private final ObjectMapper mapper;
     private final MockMvc mvc;
 
@@ -81,6 +87,24 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.[0].description").value(itemDto.getDescription()));
     }
 
+    @Test
+    public void shouldGetItemsAfterCursor() throws Exception {
+        Mockito
+                .when(itemService.getItemsAfter(1L, "", 1))
+                .thenReturn(List.of(itemDto));
+
+        mvc.perform(get("/items")
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", Cursor.of(itemDto.getId()).encode()))
+                .andExpect(jsonPath("$.size()").value(1))
+                .andExpect(jsonPath("$.[0].id").value(itemDto.getId()));
+    }
+
     @Test
     public void shouldAddItem() throws Exception {
         Mockito
@@ -159,4 +183,27 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.authorName").value(commentDto.getAuthorName()))
                 .andExpect(jsonPath("$.created").value(commentDto.getCreated().toString()));
     }
+
+    @Test
+    public void shouldGetItemsAvailability() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = start.plusHours(2);
+        ItemAvailabilityDto availabilityDto = ItemAvailabilityDto.builder()
+                .itemId(1L)
+                .start(start)
+                .end(end)
+                .free(true)
+                .build();
+        Mockito
+                .when(itemService.getAvailability(1L, List.of(1L, 2L), start, end))
+                .thenReturn(List.of(availabilityDto));
+
+        mvc.perform(get("/items/availability?ids=1,2&start=2030-01-01T10:00:00&end=2030-01-01T12:00:00")
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].itemId").value(1))
+                .andExpect(jsonPath("$[0].free").value(true));
+    }
 }
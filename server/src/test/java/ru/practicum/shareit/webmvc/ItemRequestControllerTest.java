@@ -10,6 +10,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.Util.CatalogVersion;
 import ru.practicum.shareit.request.controller.ItemRequestController;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -22,6 +23,7 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -30,6 +32,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 public class ItemRequestControllerTest {
     @MockBean
     private ItemRequestService itemRequestService;
+    @MockBean
+    private CatalogVersion catalogVersion;
     private final ObjectMapper mapper;
     private final MockMvc mvc;
 
@@ -97,6 +101,42 @@ public class ItemRequestControllerTest {
                 .andExpect(jsonPath("$.[0].created").value(itemRequestDto.getCreated().toString()));
     }
 
+    @Test
+    public void shouldGetAllItemRequestsWithTotalCount() throws Exception {
+        Mockito
+                .when(itemRequestService.getAllItemRequests(anyLong(), anyInt(), anyInt()))
+                .thenReturn(List.of(itemRequestDto));
+        Mockito
+                .when(itemRequestService.countAllItemRequests(anyLong()))
+                .thenReturn(7L);
+
+        mvc.perform(get("/requests/all")
+                        .param("total", "true")
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "7"))
+                .andExpect(jsonPath("$.size()").value(1));
+    }
+
+    @Test
+    public void shouldNotGetAllItemRequestsWhenNotModified() throws Exception {
+        Mockito
+                .when(catalogVersion.requestsETag(anyLong()))
+                .thenReturn("\"v1\"");
+
+        mvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", 1)
+                        .header("If-None-Match", "\"v1\"")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"v1\""));
+
+        Mockito.verify(itemRequestService, Mockito.never()).getAllItemRequests(anyLong(), anyInt(), anyInt());
+    }
+
     @Test
     public void shouldGetItemRequestById() throws Exception {
         Mockito